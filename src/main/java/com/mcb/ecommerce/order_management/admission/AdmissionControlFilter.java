@@ -0,0 +1,141 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission layer in front of the order endpoints. It runs inside the security filter chain
+ * (see {@code SecurityConfig}) so the authenticated principal is known, and rejects requests
+ * with 429 and a Retry-After header when:
+ * - the principal has exhausted its token bucket,
+ * - too many expensive list queries are already running,
+ * - it is among the fraction shed while the p99 latency is above the shedding threshold
+ *   (see {@link LatencyMonitor}).
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String ORDERS_PATH = "/api/v1/orders";
+    private static final String SEARCH_PATH = ORDERS_PATH + "/search";
+    private static final String CUSTOMERS_PATH = ORDERS_PATH + "/customers/";
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Semaphore listQueryPermits;
+    private final LatencyMonitor latencyMonitor;
+
+    @Autowired
+    public AdmissionControlFilter(@Value("${order.admission.permits-per-second:50}") double permitsPerSecond,
+                                  @Value("${order.admission.burst:100}") int burst,
+                                  @Value("${order.admission.max-concurrent-list-queries:8}") int maxConcurrentListQueries,
+                                  @Value("${order.admission.shed-p99-threshold-ms:500}") long shedThresholdMillis,
+                                  @Value("${order.admission.latency-window-ms:1000}") long latencyWindowMillis) {
+        this(permitsPerSecond, burst, maxConcurrentListQueries,
+                new LatencyMonitor(shedThresholdMillis, latencyWindowMillis, System.nanoTime()));
+    }
+
+    AdmissionControlFilter(double permitsPerSecond, int burst, int maxConcurrentListQueries,
+                           LatencyMonitor latencyMonitor) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.listQueryPermits = new Semaphore(maxConcurrentListQueries);
+        this.latencyMonitor = latencyMonitor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(ORDERS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+
+        latencyMonitor.rotateIfElapsed(start);
+        if (latencyMonitor.shouldShed(ThreadLocalRandom.current().nextDouble())) {
+            reject(response, latencyMonitor.getWindowMillis(), "Service is overloaded, retry later");
+            return;
+        }
+
+        long waitNanos = bucketFor(principal(request)).tryAcquire(start);
+        if (waitNanos > 0) {
+            reject(response, TimeUnit.NANOSECONDS.toMillis(waitNanos), "Rate limit exceeded");
+            return;
+        }
+
+        boolean listQuery = isListQuery(request);
+        if (listQuery && !listQueryPermits.tryAcquire()) {
+            reject(response, 1_000L, "Too many concurrent list queries");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (listQuery) {
+                listQueryPermits.release();
+            }
+            long end = System.nanoTime();
+            latencyMonitor.record(end - start, end);
+        }
+    }
+
+    private TokenBucket bucketFor(String principal) {
+        TokenBucket bucket = buckets.get(principal);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(principal, key -> new TokenBucket(permitsPerSecond, burst));
+        }
+        return bucket;
+    }
+
+    private static String principal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Listings, searches and customer histories scan the repository, so they get their own concurrency limit
+    private static boolean isListQuery(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return false;
+        }
+        String path = path(request);
+        return path.equals(ORDERS_PATH) || path.equals(ORDERS_PATH + "/") || path.equals(SEARCH_PATH)
+                || (path.startsWith(CUSTOMERS_PATH) && path.endsWith("/orders"));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterMillis, String message) throws IOException {
+        long retryAfterSeconds = Math.max(1L, (retryAfterMillis + 999L) / 1_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,151 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks request latency in fixed time windows and derives the fraction of requests to shed.
+ * The admitted fraction follows AIMD: every window whose p99 exceeds the threshold cuts it in
+ * proportion to the overshoot, and every window back under the threshold raises it by a fixed
+ * step, so load returns gradually instead of all at once.
+ * Samples go into a log-linear histogram (four sub-buckets per power of two microseconds)
+ * backed by an {@link AtomicLongArray}, so recording never takes a lock.
+ */
+public class LatencyMonitor {
+
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = SUB_BUCKETS * 40;
+
+    // Ignore windows that are too small for the p99 to mean anything
+    static final long MIN_SAMPLES = 50;
+
+    // Always admit some requests, otherwise there is no latency left to measure
+    static final double MAX_SHED_FRACTION = 0.9;
+    static final double MIN_CUT = 0.1;
+    static final double MAX_CUT = 0.5;
+    static final double RECOVERY_STEP = 0.1;
+
+    private final long thresholdMicros;
+    private final long windowNanos;
+    private final AtomicReference<AtomicLongArray> window = new AtomicReference<>(new AtomicLongArray(BUCKETS));
+    private final AtomicLong windowEndNanos;
+
+    private volatile long lastP99Micros;
+    private volatile double shedFraction;
+
+    /**
+     * @param thresholdMillis p99 latency above which the service is considered overloaded.
+     * @param windowMillis length of each measurement window.
+     * @param nowNanos the current time from {@link System#nanoTime()}.
+     */
+    public LatencyMonitor(long thresholdMillis, long windowMillis, long nowNanos) {
+        this.thresholdMicros = thresholdMillis * 1_000L;
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.windowEndNanos = new AtomicLong(nowNanos + windowNanos);
+    }
+
+    /**
+     * Records a completed request and rotates the window if it has elapsed.
+     * @param latencyNanos how long the request took.
+     * @param nowNanos the current time from {@link System#nanoTime()}.
+     */
+    public void record(long latencyNanos, long nowNanos) {
+        window.get().incrementAndGet(bucketFor(latencyNanos / 1_000L));
+        rotateIfElapsed(nowNanos);
+    }
+
+    /**
+     * Closes the current window if it has elapsed. Only the thread that wins the CAS on the
+     * window end computes the p99; everyone else keeps recording into the fresh window.
+     * @param nowNanos the current time from {@link System#nanoTime()}.
+     */
+    public void rotateIfElapsed(long nowNanos) {
+        long end = windowEndNanos.get();
+        if (nowNanos - end < 0 || !windowEndNanos.compareAndSet(end, nowNanos + windowNanos)) {
+            return;
+        }
+        AtomicLongArray closed = window.getAndSet(new AtomicLongArray(BUCKETS));
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += closed.get(i);
+        }
+        long p99 = percentile(closed, total, 0.99);
+        lastP99Micros = p99;
+        shedFraction = nextShedFraction(shedFraction, total >= MIN_SAMPLES && p99 > thresholdMicros
+                ? (double) (p99 - thresholdMicros) / thresholdMicros : 0.0);
+    }
+
+    /**
+     * @param uniform a random number in [0, 1).
+     * @return true if the request drawing this number should be shed.
+     */
+    public boolean shouldShed(double uniform) {
+        return uniform < shedFraction;
+    }
+
+    public boolean isOverloaded() {
+        return shedFraction > 0.0;
+    }
+
+    /**
+     * @return the fraction of requests currently shed, between 0 and {@link #MAX_SHED_FRACTION}.
+     */
+    public double getShedFraction() {
+        return shedFraction;
+    }
+
+    public long getLastP99Micros() {
+        return lastP99Micros;
+    }
+
+    public long getWindowMillis() {
+        return windowNanos / 1_000_000L;
+    }
+
+    /**
+     * @param overshoot how far the p99 was above the threshold, relative to it; 0 if it was not.
+     */
+    static double nextShedFraction(double current, double overshoot) {
+        if (overshoot <= 0.0) {
+            return Math.max(0.0, current - RECOVERY_STEP);
+        }
+        double cut = Math.min(MAX_CUT, Math.max(MIN_CUT, overshoot / 2));
+        double admitted = (1.0 - current) * (1.0 - cut);
+        return Math.min(MAX_SHED_FRACTION, 1.0 - admitted);
+    }
+
+    private static long percentile(AtomicLongArray histogram, long total, double quantile) {
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram.get(i);
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(BUCKETS - 1);
+    }
+
+    static int bucketFor(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0L);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return Math.min((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket, BUCKETS - 1);
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented with the generic cell rate algorithm (GCRA).
+ * The whole bucket state is a single "theoretical arrival time", so admitting a
+ * request is one CAS on an {@link AtomicLong} instead of a synchronized refill.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param permitsPerSecond sustained rate at which tokens are refilled.
+     * @param burst maximum number of requests admitted back to back.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1L, Math.round(1_000_000_000d / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Tries to take one token.
+     * @param nowNanos the current time from {@link System#nanoTime()}.
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long base = Math.max(tat, nowNanos);
+            long wait = base - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0L;
+            }
+        }
+    }
+}
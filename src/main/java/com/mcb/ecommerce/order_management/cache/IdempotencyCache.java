@@ -0,0 +1,125 @@
+package com.mcb.ecommerce.order_management.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-expiring cache of results keyed by a client supplied idempotency key.
+ * The first caller for a key runs the action; concurrent and later callers with the same key
+ * wait for and receive that same result instead of running the action again.
+ * Lookups are a single {@link ConcurrentHashMap} operation, so unrelated keys never contend.
+ * @param <V> the type of the cached result.
+ */
+public class IdempotencyCache<V> {
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    // All entries share the same TTL, so insertion order is also expiry order
+    private final Queue<Entry<V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public IdempotencyCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs the action once per key and returns its result for every repeated call within the TTL.
+     * If the action fails the key is released so the client can retry.
+     * @param key the idempotency key.
+     * @param fingerprint the request the key was first used with, repeated keys must match it.
+     * @param action the work to perform for the first request with this key.
+     * @return the result of the first successful execution for the key.
+     * @throws IllegalArgumentException if the key was already used with a different request.
+     */
+    public V execute(String key, Object fingerprint, Supplier<V> action) {
+        long now = nanoClock.getAsLong();
+        Entry<V> candidate = new Entry<>(key, fingerprint, now + ttlNanos);
+
+        while (true) {
+            Entry<V> existing = entries.putIfAbsent(key, candidate);
+            if (existing == null) {
+                insertionOrder.offer(candidate);
+                evict(now);
+                return run(candidate, action);
+            }
+            if (existing.isExpired(now)) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                throw new IllegalArgumentException("Idempotency key has already been used with a different request");
+            }
+            return await(existing);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private V run(Entry<V> entry, Supplier<V> action) {
+        try {
+            V result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private V await(Entry<V> entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Drop expired entries and enforce the size bound, oldest first
+    private void evict(long now) {
+        Entry<V> head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.isExpired(now) || entries.size() > maxEntries)) {
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key, head);
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final String key;
+        private final Object fingerprint;
+        private final long expiresAtNanos;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private Entry(String key, Object fingerprint, long expiresAtNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
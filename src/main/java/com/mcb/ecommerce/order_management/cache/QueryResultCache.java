@@ -0,0 +1,257 @@
+package com.mcb.ecommerce.order_management.cache;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderChangeListener;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of list query results, keyed by the normalized filter of the query.
+ * Concurrent misses for the same key run the query once and share its result.
+ *
+ * Registered as an {@link OrderChangeListener}, it evicts only the entries whose filter matches
+ * the order before or after a write. Entries are grouped by customer and by status, so a write only
+ * looks at the entries it can affect. An entry is in the map and its group before its query runs,
+ * so a write that lands while the query is running evicts it and the next caller queries again.
+ *
+ * Writes take no lock shared across groups: groups are concurrent sets, an entry is evicted by whoever
+ * removes it from the map first, and the insertion order is a queue that drops removed entries lazily.
+ */
+public class QueryResultCache implements OrderChangeListener {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    // Insertion order for the size bound; entries removed by a write stay queued until polled or swept
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger removedQueued = new AtomicInteger();
+
+    // Every entry in exactly one group: by customer if its filter has one, else by status if it has one,
+    // else with the unfiltered entries
+    private final Map<String, Set<Entry>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<OrderStatus, Set<Entry>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Set<Entry> unfiltered = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public QueryResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Returns the cached result for the key, running the query on a miss.
+     * If the query fails nothing is cached and the failure is rethrown to every waiting caller.
+     * @param key the normalized filter.
+     * @param query computes the result for the key.
+     * @return an unmodifiable list of the matching orders.
+     */
+    public List<Order> get(Key key, Supplier<List<Order>> query) {
+        Entry existing = entries.get(key);
+        if (existing == null) {
+            Entry candidate = new Entry(key);
+            existing = entries.putIfAbsent(key, candidate);
+            if (existing == null) {
+                link(candidate);
+                evictOverflow();
+                misses.increment();
+                return run(candidate, query);
+            }
+        }
+        hits.increment();
+        return await(existing);
+    }
+
+    @Override
+    public void onChange(Order before, Order after) {
+        List<Entry> affected = new ArrayList<>();
+        for (Order order : new Order[]{before, after}) {
+            if (order != null) {
+                collectMatching(byCustomer.get(OrderRepository.customerKey(order.getCustomerName())), order, affected);
+                collectMatching(byStatus.get(order.getStatus()), order, affected);
+                collectMatching(unfiltered, order, affected);
+            }
+        }
+        for (Entry entry : affected) {
+            if (remove(entry)) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private List<Order> run(Entry entry, Supplier<List<Order>> query) {
+        try {
+            List<Order> result = List.copyOf(query.get());
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            remove(entry);
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private List<Order> await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Queue and group a new entry; if it was evicted in between, take it back out of its group
+    private void link(Entry entry) {
+        insertionOrder.add(entry);
+        Key key = entry.key;
+        if (key.customerName() != null) {
+            byCustomer.compute(key.customerName(), (customer, group) -> {
+                Set<Entry> linked = group == null ? ConcurrentHashMap.newKeySet() : group;
+                linked.add(entry);
+                return linked;
+            });
+        } else if (key.status() != null) {
+            byStatus.get(key.status()).add(entry);
+        } else {
+            unfiltered.add(entry);
+        }
+        if (entries.get(key) != entry) {
+            ungroup(entry);
+        }
+    }
+
+    // Enforce the size bound, oldest first, skipping entries a write already removed
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            Entry head = insertionOrder.poll();
+            if (head == null) {
+                return;
+            }
+            if (head.removed) {
+                removedQueued.decrementAndGet();
+            } else if (entries.remove(head.key, head)) {
+                head.removed = true;
+                ungroup(head);
+            }
+        }
+    }
+
+    private static void collectMatching(Set<Entry> group, Order order, List<Entry> matching) {
+        if (group != null) {
+            for (Entry entry : group) {
+                if (entry.key.matches(order)) {
+                    matching.add(entry);
+                }
+            }
+        }
+    }
+
+    // Unlinks the entry from the map and its group; only the caller that removes it from the map does
+    private boolean remove(Entry entry) {
+        if (!entries.remove(entry.key, entry)) {
+            return false;
+        }
+        entry.removed = true;
+        ungroup(entry);
+        // The count is approximate under races, it only decides when to sweep the queue
+        if (removedQueued.incrementAndGet() > maxEntries) {
+            removedQueued.set(0);
+            insertionOrder.removeIf(queued -> queued.removed);
+        }
+        return true;
+    }
+
+    private void ungroup(Entry entry) {
+        Key key = entry.key;
+        if (key.customerName() != null) {
+            byCustomer.computeIfPresent(key.customerName(), (customer, group) -> {
+                group.remove(entry);
+                return group.isEmpty() ? null : group;
+            });
+        } else if (key.status() != null) {
+            byStatus.get(key.status()).remove(entry);
+        } else {
+            unfiltered.remove(entry);
+        }
+    }
+
+    /**
+     * Normalized filter of a cached query: customer names are folded like the customer index,
+     * a null customer name or status matches every order.
+     */
+    public record Key(String customerName, OrderStatus status, String sort) {
+
+        /**
+         * @param sort "asc" or "desc" in any case, anything else means unsorted.
+         */
+        public static Key orders(String customerName, OrderStatus status, String sort) {
+            String normalizedSort = "asc".equalsIgnoreCase(sort) || "desc".equalsIgnoreCase(sort)
+                    ? sort.toLowerCase(Locale.ROOT) : null;
+            return new Key(normalize(customerName), status, normalizedSort);
+        }
+
+        /**
+         * @return true if the order is, or would be, part of the result of this query.
+         */
+        boolean matches(Order order) {
+            if (order == null) {
+                return false;
+            }
+            if (status != null && status != order.getStatus()) {
+                return false;
+            }
+            return customerName == null || customerName.equals(OrderRepository.customerKey(order.getCustomerName()));
+        }
+
+        private static String normalize(String customerName) {
+            return customerName == null ? null : OrderRepository.customerKey(customerName);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CompletableFuture<List<Order>> result = new CompletableFuture<>();
+        private volatile boolean removed;
+
+        private Entry(Key key) {
+            this.key = key;
+        }
+    }
+}
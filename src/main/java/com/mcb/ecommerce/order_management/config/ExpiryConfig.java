@@ -0,0 +1,29 @@
+package com.mcb.ecommerce.order_management.config;
+
+import com.mcb.ecommerce.order_management.expiry.OrderExpiryScheduler;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Wires the scheduler that cancels orders left PENDING past {@code order.expiry.pending-timeout-ms}.
+ * Followers never expire orders themselves, they receive the cancellations from the leader.
+ */
+@Configuration
+public class ExpiryConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnExpression("${order.expiry.enabled:true} and '${order.replication.role:standalone}' != 'follower'")
+    public OrderExpiryScheduler orderExpiryScheduler(OrderRepository orderRepository,
+                                                     @Value("${order.expiry.pending-timeout-ms:86400000}") long pendingTimeoutMillis,
+                                                     @Value("${order.expiry.tick-ms:100}") long tickMillis,
+                                                     @Value("${order.expiry.batch-size:1000}") int batchSize) {
+        return new OrderExpiryScheduler(OrderService.getInstance(orderRepository),
+                Duration.ofMillis(pendingTimeoutMillis), Duration.ofMillis(tickMillis), batchSize);
+    }
+}
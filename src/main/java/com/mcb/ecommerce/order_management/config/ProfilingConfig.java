@@ -0,0 +1,27 @@
+package com.mcb.ecommerce.order_management.config;
+
+import com.mcb.ecommerce.order_management.profiling.ProfilingJackson2HttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Swaps the JSON converter Spring Boot configured for one that records serialization events,
+ * keeping the configured ObjectMapper.
+ */
+@Configuration
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof ProfilingJackson2HttpMessageConverter)) {
+                converters.set(i, new ProfilingJackson2HttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
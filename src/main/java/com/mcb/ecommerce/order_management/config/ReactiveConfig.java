@@ -0,0 +1,58 @@
+package com.mcb.ecommerce.order_management.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcb.ecommerce.order_management.reactive.BasicAuthWebFilter;
+import com.mcb.ecommerce.order_management.reactive.ReactiveOrderHandler;
+import com.mcb.ecommerce.order_management.reactive.ReactiveOrderServer;
+import com.mcb.ecommerce.order_management.reactive.ReactiveOrderService;
+import com.mcb.ecommerce.order_management.reactive.ReplicaConsistencyWebFilter;
+import com.mcb.ecommerce.order_management.replication.ReplicationFollower;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.WebFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the reactive variant of the order API on {@code order.reactive.port}. The application
+ * itself stays a servlet application; the reactive API runs on a separate Reactor Netty server
+ * over the same order service, users and JSON mapping. On a read replica it applies the same
+ * write rejection and staleness bound as the servlet API.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.reactive.enabled", havingValue = "true")
+public class ReactiveConfig {
+
+    @Bean
+    public ReactiveOrderHandler reactiveOrderHandler(OrderRepository orderRepository, Validator validator) {
+        return new ReactiveOrderHandler(new ReactiveOrderService(OrderService.getInstance(orderRepository)), validator);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReactiveOrderServer reactiveOrderServer(ReactiveOrderHandler reactiveOrderHandler,
+                                                   ObjectMapper objectMapper,
+                                                   UserDetailsService userDetailsService,
+                                                   PasswordEncoder passwordEncoder,
+                                                   ObjectProvider<ReplicationFollower> replicationFollower,
+                                                   @Value("${order.replication.max-staleness-ms:1000}") long maxStalenessMillis,
+                                                   @Value("${order.reactive.port:8090}") int port) {
+        List<WebFilter> filters = new ArrayList<>();
+        // On a read replica, like ReplicaConsistencyFilter does for the servlet API
+        ReplicationFollower follower = replicationFollower.getIfAvailable();
+        if (follower != null) {
+            filters.add(new ReplicaConsistencyWebFilter(follower, maxStalenessMillis));
+        }
+        filters.add(new BasicAuthWebFilter(userDetailsService, passwordEncoder));
+        return new ReactiveOrderServer(ReactiveOrderServer.httpHandler(reactiveOrderHandler.routes(), objectMapper,
+                filters.toArray(new WebFilter[0])), port);
+    }
+}
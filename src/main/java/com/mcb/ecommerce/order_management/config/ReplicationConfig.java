@@ -0,0 +1,60 @@
+package com.mcb.ecommerce.order_management.config;
+
+import com.mcb.ecommerce.order_management.replication.ReplicaConsistencyFilter;
+import com.mcb.ecommerce.order_management.replication.ReplicationFollower;
+import com.mcb.ecommerce.order_management.replication.ReplicationLeader;
+import com.mcb.ecommerce.order_management.replication.ReplicationLog;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires replication according to {@code order.replication.role}:
+ * - leader: records every change in a mutation log and streams it to followers,
+ * - follower: applies the leader's log to the local store and only serves reads,
+ * - standalone (default): no replication.
+ */
+@Configuration
+public class ReplicationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "order.replication.role", havingValue = "leader")
+    public ReplicationLog replicationLog(OrderRepository orderRepository,
+                                         @Value("${order.replication.log-capacity:65536}") int capacity) {
+        ReplicationLog replicationLog = new ReplicationLog(capacity);
+        orderRepository.addChangeListener(replicationLog);
+        return replicationLog;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "order.replication.role", havingValue = "leader")
+    public ReplicationLeader replicationLeader(OrderRepository orderRepository, ReplicationLog replicationLog,
+                                              @Value("${order.replication.port:7070}") int port,
+                                              @Value("${order.replication.heartbeat-interval-ms:100}") long heartbeatIntervalMillis) {
+        return new ReplicationLeader(orderRepository, replicationLog, port, heartbeatIntervalMillis);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "order.replication.role", havingValue = "follower")
+    public ReplicationFollower replicationFollower(OrderRepository orderRepository,
+                                                   @Value("${order.replication.leader-host:localhost}") String leaderHost,
+                                                   @Value("${order.replication.leader-port:7070}") int leaderPort) {
+        return new ReplicationFollower(orderRepository, leaderHost, leaderPort);
+    }
+
+    // Registered as a servlet filter ahead of security so writes never reach a replica's store or its admin endpoints
+    @Bean
+    @ConditionalOnProperty(name = "order.replication.role", havingValue = "follower")
+    public FilterRegistrationBean<ReplicaConsistencyFilter> replicaConsistencyFilter(
+            ReplicationFollower follower,
+            @Value("${order.replication.max-staleness-ms:1000}") long maxStalenessMillis) {
+        FilterRegistrationBean<ReplicaConsistencyFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaConsistencyFilter(follower, maxStalenessMillis));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Integer.MIN_VALUE);
+        return registration;
+    }
+}
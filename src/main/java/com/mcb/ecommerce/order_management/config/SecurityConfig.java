@@ -1,5 +1,7 @@
 package com.mcb.ecommerce.order_management.config;
 
+import com.mcb.ecommerce.order_management.admission.AdmissionControlFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 @Configuration
 @EnableMethodSecurity
@@ -44,7 +47,8 @@ public class SecurityConfig {
 
     // Define security filter chain for HTTP security configurations
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AdmissionControlFilter admissionControlFilter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for simplicity
                 .authorizeHttpRequests(authz -> authz
@@ -53,8 +57,17 @@ public class SecurityConfig {
                         .requestMatchers("/orders/**").hasAnyRole("ADMIN", "USER") // Allow both roles access to other order endpoints
                         .anyRequest().authenticated() // Other endpoints need authentication
                 )
-                .httpBasic(httpBasic -> {}); // Enable Basic Authentication without parameters
+                .httpBasic(httpBasic -> {}) // Enable Basic Authentication without parameters
+                .addFilterAfter(admissionControlFilter, AuthorizationFilter.class); // Rate limit per authenticated principal
 
         return http.build();
     }
+
+    // Keep the admission filter out of the servlet container chain, it only runs inside the security chain
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
 }
@@ -0,0 +1,30 @@
+package com.mcb.ecommerce.order_management.config;
+
+import com.mcb.ecommerce.order_management.expiry.OrderExpiryScheduler;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.snapshot.SnapshotManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Wires loading the order store from {@code order.snapshot.file} on startup and writing it back,
+ * on demand through the admin endpoint and optionally on shutdown. Restored PENDING orders are
+ * handed to the expiry scheduler, when there is one.
+ */
+@Configuration
+public class SnapshotConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "order.snapshot.enabled", havingValue = "true")
+    public SnapshotManager snapshotManager(OrderRepository orderRepository,
+                                           ObjectProvider<OrderExpiryScheduler> expiryScheduler,
+                                           @Value("${order.snapshot.file:orders.snap}") Path file,
+                                           @Value("${order.snapshot.write-on-shutdown:true}") boolean writeOnShutdown) {
+        return new SnapshotManager(orderRepository, file, writeOnShutdown, expiryScheduler.getIfAvailable());
+    }
+}
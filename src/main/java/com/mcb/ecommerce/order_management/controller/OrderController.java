@@ -1,7 +1,10 @@
 package com.mcb.ecommerce.order_management.controller;
 
 import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
 import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.exception.OrderNotFoundException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
 import com.mcb.ecommerce.order_management.model.Order;
 import com.mcb.ecommerce.order_management.repository.OrderRepository;
 import com.mcb.ecommerce.order_management.service.OrderService;
@@ -9,12 +12,16 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,13 +44,19 @@ public class OrderController {
     /**
      * Creates a new order.
      * @param orderRequest the details of the order to create.
+     * @param idempotencyKey optional key, retries by the same user carrying the same key return the original order.
+     * @param principal the authenticated user the key is scoped to.
      * @return the created order.
      */
-    @Operation(summary = "Create a new Order", description = "Creates a new order (Admin Only).")
+    @Operation(summary = "Create a new Order", description = "Creates a new order (Admin Only). "
+            + "Requests by the same user repeating an Idempotency-Key return the originally created order.")
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        Order createdOrder = orderService.createOrder(orderRequest);
+    public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                             Principal principal) {
+        Order createdOrder = orderService.createOrder(orderRequest, principal == null ? null : principal.getName(),
+                idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
@@ -63,6 +76,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Searches orders with compound criteria.
+     * @param searchRequest filters on customer, product, status, price, quantity and creation date, plus sort and limit.
+     * @return the matching orders.
+     */
+    @Operation(summary = "Search Orders", description = "Search orders by customer name or prefix, product name, status, "
+            + "price and quantity ranges and creation date range. Sort with e.g. sort=price:desc,dateCreated and cap with limit.")
+    @GetMapping("/search")
+    public ResponseEntity<List<Order>> searchOrders(@Valid OrderSearchRequest searchRequest) {
+        List<Order> orders = orderService.searchOrders(searchRequest);
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * Retrieves an order by its ID.
      * @param id the ID of the order.
@@ -72,22 +98,34 @@ public class OrderController {
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable UUID id) {
         Order order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok().eTag(Long.toString(order.getVersion())).body(order);
     }
 
     /**
      * Updates an order's status.
      * @param id the ID of the order to update.
      * @param updateRequest the new status.
+     * @param ifMatch optional ETag (order version) the update is conditional on.
      * @return the updated order.
      */
-    @Operation(summary = "Update Order Status", description = "Update the status of an order (Admin Only).")
+    @Operation(summary = "Update Order Status", description = "Update the status of an order (Admin Only). "
+            + "With an If-Match header the update only applies if the order is still at that version.")
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Order> updateOrder(@PathVariable UUID id,
-                                             @Valid @RequestBody OrderUpdateRequest updateRequest) {
-        Order updatedOrder = orderService.updateOrder(id, updateRequest);
-        return ResponseEntity.ok(updatedOrder);
+                                             @Valid @RequestBody OrderUpdateRequest updateRequest,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Order updatedOrder;
+        try {
+            updatedOrder = orderService.updateOrder(id, updateRequest, parseVersion(ifMatch));
+        } catch (OrderNotFoundException ex) {
+            // If-Match: * asks for any current version, so a missing order fails the precondition
+            if (isWildcard(ifMatch)) {
+                throw new OrderVersionMismatchException(id);
+            }
+            throw ex;
+        }
+        return ResponseEntity.ok().eTag(Long.toString(updatedOrder.getVersion())).body(updatedOrder);
     }
 
     /**
@@ -106,12 +144,41 @@ public class OrderController {
     /**
      * Retrieves the order history for a specific customer.
      * @param customerName the name of the customer.
-     * @return the order history for the specified customer.
+     * @param since only orders created at or after this time.
+     * @param limit the maximum number of orders.
+     * @return the order history for the specified customer, newest first.
      */
-    @Operation(summary = "Get Order History for a Customer", description = "Retrieve the order history for a customer.")
+    @Operation(summary = "Get Order History for a Customer", description = "Retrieve the order history for a customer, "
+            + "newest first. Restrict it to orders created since a date-time and cap it with limit.")
     @GetMapping("/customers/{customerName}/orders")
-    public ResponseEntity<List<Order>> getOrderHistory(@PathVariable String customerName) {
-        List<Order> orders = orderService.getOrderHistory(customerName);
+    public ResponseEntity<List<Order>> getOrderHistory(@PathVariable String customerName,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                       @RequestParam(required = false) Integer limit) {
+        List<Order> orders = orderService.getOrderHistory(customerName, since, limit);
         return ResponseEntity.ok(orders);
     }
+
+    // Accepts the ETag forms "3", W/"3" and 3; * matches any version
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || isWildcard(ifMatch)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must contain an order version");
+        }
+    }
+
+    private static boolean isWildcard(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
 }
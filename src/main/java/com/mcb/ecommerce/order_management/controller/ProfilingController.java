@@ -0,0 +1,102 @@
+package com.mcb.ecommerce.order_management.controller;
+
+import com.mcb.ecommerce.order_management.profiling.ProfilingRecorder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * REST controller for on-demand Flight Recorder recordings of the order operations.
+ */
+@Tag(name = "Profiling", description = "Start, dump and stop Flight Recorder recordings (Admin Only)")
+@RestController
+@RequestMapping("/api/v1/admin/profiling")
+@PreAuthorize("hasRole('ADMIN')")
+public class ProfilingController {
+
+    private final ProfilingRecorder profilingRecorder;
+
+    public ProfilingController(ProfilingRecorder profilingRecorder) {
+        this.profilingRecorder = profilingRecorder;
+    }
+
+    /**
+     * Starts a recording.
+     * @param settings JDK recording settings, "profile" (default) or "default".
+     * @param maxAgeSeconds how many seconds of history to keep, or 0 to keep everything.
+     * @return the recording status, 409 if a recording is already running.
+     */
+    @Operation(summary = "Start a recording", description = "Starts a Flight Recorder recording including the order events")
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestParam(defaultValue = "profile") String settings,
+                                                     @RequestParam(defaultValue = "600") long maxAgeSeconds) {
+        Duration maxAge = maxAgeSeconds > 0 ? Duration.ofSeconds(maxAgeSeconds) : null;
+        HttpStatus status = profilingRecorder.start(settings, maxAge) ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(profilingRecorder.status());
+    }
+
+    /**
+     * Dumps what the running recording has collected so far, without stopping it.
+     * @return the recording file, 409 if no recording is running.
+     */
+    @Operation(summary = "Dump the recording", description = "Downloads the running recording and keeps recording")
+    @PostMapping("/dump")
+    public ResponseEntity<?> dump() {
+        return download(profilingRecorder.dump());
+    }
+
+    /**
+     * Stops the running recording.
+     * @return the recording file, 409 if no recording is running.
+     */
+    @Operation(summary = "Stop the recording", description = "Stops the running recording and downloads it")
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop() {
+        return download(profilingRecorder.stop());
+    }
+
+    @Operation(summary = "Get recording status", description = "Returns whether a recording is running and its size")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(profilingRecorder.status());
+    }
+
+    // The file is deleted once the response has been streamed and the stream is closed
+    private ResponseEntity<?> download(Path file) {
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(profilingRecorder.status());
+        }
+        try {
+            long size = Files.size(file);
+            InputStream content = Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                    .body(new InputStreamResource(content));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read recording " + file, ex);
+        }
+    }
+}
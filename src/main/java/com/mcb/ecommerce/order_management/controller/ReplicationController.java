@@ -0,0 +1,77 @@
+package com.mcb.ecommerce.order_management.controller;
+
+import com.mcb.ecommerce.order_management.replication.ReplicationFollower;
+import com.mcb.ecommerce.order_management.replication.ReplicationLeader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller exposing the replication state of this node.
+ */
+@Tag(name = "Replication", description = "Replication role, log position and lag of this node")
+@RestController
+@RequestMapping("/api/v1/replication")
+public class ReplicationController {
+
+    private final String role;
+    private final ObjectProvider<ReplicationLeader> leader;
+    private final ObjectProvider<ReplicationFollower> follower;
+
+    public ReplicationController(@Value("${order.replication.role:standalone}") String role,
+                                 ObjectProvider<ReplicationLeader> leader,
+                                 ObjectProvider<ReplicationFollower> follower) {
+        this.role = role;
+        this.leader = leader;
+        this.follower = follower;
+    }
+
+    /**
+     * Reports the replication metrics of this node.
+     * @return for a leader the last logged sequence and what was sent to each follower,
+     * for a follower the applied sequence, lag in log entries and staleness.
+     */
+    @Operation(summary = "Get replication status", description = "Returns the replication role, log sequences and lag of this node")
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("role", role);
+
+        ReplicationLeader replicationLeader = leader.getIfAvailable();
+        if (replicationLeader != null) {
+            long lastSequence = replicationLeader.getLastSequence();
+            status.put("lastSequence", lastSequence);
+
+            List<Map<String, Object>> followers = new ArrayList<>();
+            for (ReplicationLeader.FollowerSession session : replicationLeader.getFollowers()) {
+                Map<String, Object> followerStatus = new HashMap<>();
+                followerStatus.put("address", session.getAddress());
+                followerStatus.put("sentSequence", session.getSentSequence());
+                followerStatus.put("lagEntries", Math.max(0L, lastSequence - session.getSentSequence()));
+                followers.add(followerStatus);
+            }
+            status.put("followers", followers);
+        }
+
+        ReplicationFollower replicationFollower = follower.getIfAvailable();
+        if (replicationFollower != null) {
+            long staleness = replicationFollower.getStalenessMillis();
+            status.put("connected", replicationFollower.isConnected());
+            status.put("appliedSequence", replicationFollower.getAppliedSequence());
+            status.put("leaderSequence", replicationFollower.getLeaderSequence());
+            status.put("lagEntries", replicationFollower.getLagEntries());
+            status.put("stalenessMillis", staleness == Long.MAX_VALUE ? null : staleness);
+        }
+        return ResponseEntity.ok(status);
+    }
+}
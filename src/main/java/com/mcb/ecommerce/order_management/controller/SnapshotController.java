@@ -0,0 +1,66 @@
+package com.mcb.ecommerce.order_management.controller;
+
+import com.mcb.ecommerce.order_management.snapshot.SnapshotManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST controller for writing point-in-time snapshots of the order store.
+ */
+@Tag(name = "Snapshots", description = "Write and inspect order store snapshots (Admin Only)")
+@RestController
+@RequestMapping("/api/v1/admin/snapshots")
+@PreAuthorize("hasRole('ADMIN')")
+public class SnapshotController {
+
+    private final ObjectProvider<SnapshotManager> snapshotManager;
+
+    public SnapshotController(ObjectProvider<SnapshotManager> snapshotManager) {
+        this.snapshotManager = snapshotManager;
+    }
+
+    /**
+     * Writes a snapshot of all orders without blocking writes.
+     * @return the order count and size of the file, 409 while a restore is running,
+     * 404 if snapshots are disabled.
+     */
+    @Operation(summary = "Write a snapshot", description = "Writes a point-in-time snapshot of all orders to the snapshot file")
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> write() {
+        SnapshotManager manager = snapshotManager.getIfAvailable();
+        if (manager == null) {
+            return disabled();
+        }
+        try {
+            return ResponseEntity.ok(manager.write());
+        } catch (IllegalStateException ex) {
+            Map<String, Object> body = manager.status();
+            body.put("message", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        }
+    }
+
+    @Operation(summary = "Get snapshot status", description = "Returns the snapshot file, restore progress and last write")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        SnapshotManager manager = snapshotManager.getIfAvailable();
+        return manager == null ? disabled() : ResponseEntity.ok(manager.status());
+    }
+
+    private static ResponseEntity<Map<String, Object>> disabled() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", "Snapshots are disabled, set order.snapshot.enabled=true");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+    }
+}
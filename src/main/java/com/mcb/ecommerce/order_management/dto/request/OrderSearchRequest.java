@@ -0,0 +1,48 @@
+package com.mcb.ecommerce.order_management.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compound search criteria for orders. Every criterion is optional and all given criteria must match.
+ * The sort expression is a comma separated list of {@code field[:asc|desc]}, for example
+ * {@code price:desc,dateCreated}. Sortable fields are dateCreated, price, quantity, customerName,
+ * productName and status.
+ */
+@Data
+public class OrderSearchRequest {
+
+    private String customerName;
+
+    private String customerNamePrefix;
+
+    private String productName;
+
+    private String status;
+
+    @Min(value = 0, message = "Minimum price must not be negative")
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    @Min(value = 0, message = "Minimum quantity must not be negative")
+    private Integer minQuantity;
+
+    private Integer maxQuantity;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    private String sort;
+
+    @Min(value = 1, message = "Limit must be greater than 0")
+    @Max(value = 10_000, message = "Limit must not exceed 10000")
+    private Integer limit;
+}
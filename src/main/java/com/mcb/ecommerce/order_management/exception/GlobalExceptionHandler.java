@@ -1,52 +1,100 @@
 package com.mcb.ecommerce.order_management.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Not-found and 400 responses are hot paths under scraping traffic, so their bodies are
+    // preserialized or written directly: no map, no timestamp and no JSON serialization per request.
+    private static final byte[] NOT_FOUND_PREFIX =
+            "{\"status\":404,\"message\":\"Order not found\",\"orderId\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NOT_FOUND_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NOT_FOUND_BODY =
+            "{\"status\":404,\"message\":\"Order not found\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYPE_MISMATCH_BODY =
+            "{\"status\":400,\"message\":\"Malformed request parameter\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final String INVALID_ARGUMENT_PREFIX = "{\"status\":400,\"message\":\"Invalid argument provided\",\"details\":";
+    private static final String VALIDATION_PREFIX = "{\"status\":400,\"message\":\"Validation failed\",\"errors\":{";
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int UUID_LENGTH = 36;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("message", "Validation failed");
-        body.put("status", HttpStatus.BAD_REQUEST.value());
+    public ResponseEntity<byte[]> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        List<FieldError> errors = ex.getBindingResult().getFieldErrors();
+        StringBuilder json = new StringBuilder(VALIDATION_PREFIX.length() + 64 * errors.size()).append(VALIDATION_PREFIX);
+        boolean first = true;
+        for (int i = 0; i < errors.size(); i++) {
+            FieldError error = errors.get(i);
+            // One message per field, the last one wins as it would in a map
+            if (!reportedLater(errors, i)) {
+                if (!first) {
+                    json.append(',');
+                }
+                appendString(json, error.getField()).append(':');
+                appendString(json, error.getDefaultMessage());
+                first = false;
+            }
+        }
+        return badRequest(json.append("}}"));
+    }
 
-        // Collecting validation errors
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(error ->
-                errors.put(error.getField(), error.getDefaultMessage())
-        );
-        body.put("errors", errors);
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<byte[]> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        StringBuilder json = new StringBuilder(INVALID_ARGUMENT_PREFIX.length() + 64).append(INVALID_ARGUMENT_PREFIX);
+        return badRequest(appendString(json, ex.getMessage()).append('}'));
+    }
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<byte[]> handleOrderNotFound(OrderNotFoundException ex) {
+        byte[] body = ex.getOrderId() == null ? NOT_FOUND_BODY : notFoundBody(ex.getOrderId());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+    // Path variables that do not parse, e.g. a malformed order id
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<byte[]> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(TYPE_MISMATCH_BODY);
+    }
+
+    @ExceptionHandler(OrderVersionMismatchException.class)
+    public ResponseEntity<Object> handleVersionMismatch(OrderVersionMismatchException ex) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
-        body.put("message", "Invalid argument provided");
+        body.put("message", "Order was modified concurrently");
         body.put("details", ex.getMessage());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("status", HttpStatus.PRECONDITION_FAILED.value());
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
     }
 
-    @ExceptionHandler(OrderNotFoundException.class)
-    public ResponseEntity<?> handleBadReruests(Exception ex) {
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(IllegalStatusTransitionException.class)
+    public ResponseEntity<Object> handleIllegalStatusTransition(IllegalStatusTransitionException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Illegal status transition");
+        body.put("details", ex.getMessage());
+        body.put("status", HttpStatus.CONFLICT.value());
+
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
@@ -69,4 +117,71 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static ResponseEntity<byte[]> badRequest(StringBuilder json) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                .body(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean reportedLater(List<FieldError> errors, int index) {
+        String field = errors.get(index).getField();
+        for (int i = index + 1; i < errors.size(); i++) {
+            if (Objects.equals(field, errors.get(i).getField())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the value as a JSON string literal, or null, escaping quotes, backslashes and control characters.
+     */
+    static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append("\\u00").append((char) HEX_DIGITS[c >> 4]).append((char) HEX_DIGITS[c & 0xF]);
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    /**
+     * Builds the not-found body by copying the preserialized prefix and suffix around the id,
+     * writing the id's hex digits directly instead of going through UUID.toString().
+     */
+    static byte[] notFoundBody(UUID orderId) {
+        byte[] body = new byte[NOT_FOUND_PREFIX.length + UUID_LENGTH + NOT_FOUND_SUFFIX.length];
+        System.arraycopy(NOT_FOUND_PREFIX, 0, body, 0, NOT_FOUND_PREFIX.length);
+        int pos = NOT_FOUND_PREFIX.length;
+        long msb = orderId.getMostSignificantBits();
+        long lsb = orderId.getLeastSignificantBits();
+        pos = writeHex(body, pos, msb >>> 32, 8);
+        body[pos++] = '-';
+        pos = writeHex(body, pos, msb >>> 16, 4);
+        body[pos++] = '-';
+        pos = writeHex(body, pos, msb, 4);
+        body[pos++] = '-';
+        pos = writeHex(body, pos, lsb >>> 48, 4);
+        body[pos++] = '-';
+        pos = writeHex(body, pos, lsb, 12);
+        System.arraycopy(NOT_FOUND_SUFFIX, 0, body, pos, NOT_FOUND_SUFFIX.length);
+        return body;
+    }
+
+    private static int writeHex(byte[] target, int pos, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            target[pos + i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return pos + digits;
+    }
 }
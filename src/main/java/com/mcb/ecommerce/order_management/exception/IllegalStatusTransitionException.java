@@ -0,0 +1,15 @@
+package com.mcb.ecommerce.order_management.exception;
+
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+
+import java.io.Serial;
+
+public class IllegalStatusTransitionException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public IllegalStatusTransitionException(OrderStatus current, OrderStatus requested) {
+        super("Order in terminal status " + current + " cannot move to " + requested);
+    }
+}
@@ -1,13 +1,40 @@
 package com.mcb.ecommerce.order_management.exception;
 
 import java.io.Serial;
+import java.util.UUID;
 
+/**
+ * Thrown when no order exists for a requested id. Lookups of unknown ids are routine (stale links,
+ * scrapers probing random ids), so the exception skips the stack trace and only builds its
+ * message when something actually asks for it.
+ */
 public class OrderNotFoundException extends RuntimeException {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
+    private final UUID orderId;
+
+    public OrderNotFoundException(UUID orderId) {
+        super(null, null, false, false);
+        this.orderId = orderId;
+    }
+
     public OrderNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.orderId = null;
+    }
+
+    /**
+     * @return the id that was not found, or null if the exception was created from a message.
+     */
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        return message != null ? message : "Order not found with id: " + orderId;
     }
 }
@@ -0,0 +1,21 @@
+package com.mcb.ecommerce.order_management.exception;
+
+import java.io.Serial;
+import java.util.UUID;
+
+public class OrderVersionMismatchException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public OrderVersionMismatchException(UUID orderId, long expectedVersion, long currentVersion) {
+        super("Order " + orderId + " is at version " + currentVersion + ", expected " + expectedVersion);
+    }
+
+    /**
+     * For {@code If-Match: *} on an order that does not exist.
+     */
+    public OrderVersionMismatchException(UUID orderId) {
+        super("Order " + orderId + " does not exist, expected any version");
+    }
+}
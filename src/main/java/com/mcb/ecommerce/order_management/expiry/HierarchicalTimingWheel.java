@@ -0,0 +1,183 @@
+package com.mcb.ecommerce.order_management.expiry;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: timers are hashed into buckets by deadline, so scheduling and
+ * cancelling are O(1) and advancing the clock by one tick only touches the buckets due in that tick.
+ *
+ * There are {@value #LEVELS} wheels of {@value #WHEEL_SIZE} buckets. Level 0 holds timers due
+ * within the next 512 ticks, level 1 within 512^2 ticks, and so on. When the lower digits of the
+ * current tick roll over to zero, the matching bucket of the level above is cascaded down, re-hashing
+ * its timers into finer buckets. A timer is therefore moved at most once per level.
+ *
+ * Not thread-safe: one thread owns the wheel and is the only one to schedule, cancel and advance.
+ * @param <T> the payload handed back when a timer expires.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 9;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 6;
+    // Deadlines further out than the top wheel reaches are parked in its last slot range
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    // Sentinel heads of the circular bucket lists, level by level
+    private final Timeout<T>[] buckets;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution of the wheel, timers fire on the first tick at or after their deadline.
+     * @param startMillis the current time.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.buckets = new Timeout[LEVELS * WHEEL_SIZE];
+        for (int i = 0; i < buckets.length; i++) {
+            Timeout<T> head = new Timeout<>(null, 0);
+            head.prev = head;
+            head.next = head;
+            buckets[i] = head;
+        }
+    }
+
+    /**
+     * Schedules a timer. A deadline that has already passed fires on the next tick.
+     * @param payload handed to the expiry callback.
+     * @param deadlineMillis when the timer is due.
+     * @return the handle to cancel the timer with.
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Round up, a timer never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        place(timeout, currentTick + 1);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return true if the timer was pending and is now cancelled, false if it already fired or was cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (!timeout.isPending()) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, handing every timer that came due to the callback.
+     * @param nowMillis the current time.
+     * @param onExpiry receives the payload of each expired timer.
+     */
+    public void advance(long nowMillis, Consumer<T> onExpiry) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            cascade(tick);
+
+            Timeout<T> head = buckets[(int) (tick & MASK)];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                unlink(timeout);
+                size--;
+                onExpiry.accept(timeout.payload);
+            }
+            currentTick = tick;
+        }
+    }
+
+    /**
+     * @return the number of pending timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // When the lower digits of the tick are all zero, the bucket for this tick on the next level up
+    // starts being due within the lower level's range, so its timers move down
+    private void cascade(long tick) {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((tick & ((1L << (BITS * level)) - 1)) != 0) {
+                return;
+            }
+            Timeout<T> head = buckets[level * WHEEL_SIZE + (int) ((tick >>> (BITS * level)) & MASK)];
+            Timeout<T> timeout = head.next;
+            head.next = head;
+            head.prev = head;
+            while (timeout != head) {
+                Timeout<T> next = timeout.next;
+                place(timeout, tick);
+                timeout = next;
+            }
+        }
+    }
+
+    // Puts the timer in the finest level whose range, counted from baseTick, covers its deadline
+    private void place(Timeout<T> timeout, long baseTick) {
+        long deadlineTick = Math.max(timeout.deadlineTick, baseTick);
+        long delta = Math.min(deadlineTick - baseTick, MAX_DELTA);
+        int level = 0;
+        while (delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        if (delta == MAX_DELTA) {
+            deadlineTick = baseTick + MAX_DELTA;
+        }
+        int index = level * WHEEL_SIZE + (int) ((deadlineTick >>> (BITS * level)) & MASK);
+
+        Timeout<T> head = buckets[index];
+        timeout.bucket = index;
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    private static <T> void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    /**
+     * Handle of a scheduled timer, linked into the bucket it currently sits in.
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int bucket = -1;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isPending() {
+            return bucket >= 0;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.mcb.ecommerce.order_management.expiry;
+
+import com.mcb.ecommerce.order_management.expiry.HierarchicalTimingWheel.Timeout;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cancels orders that stay PENDING longer than a timeout.
+ *
+ * {@link OrderService} registers each order when it is created and unregisters it when it leaves
+ * PENDING or is deleted; orders restored from a snapshot are registered as they are loaded. Requests only append to a lock-free command queue; a single ticker thread
+ * owns a {@link HierarchicalTimingWheel}, applies the commands and advances the wheel every tick.
+ * Orders that come due are cancelled through the service in batches, so a burst of expiries is
+ * spread over several ticks instead of stalling the ticker.
+ */
+public class OrderExpiryScheduler implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryScheduler.class);
+
+    private static final long CANCEL = Long.MIN_VALUE;
+
+    private final OrderService orderService;
+    private final long timeoutMillis;
+    private final int batchSize;
+    private final LongSupplier clock;
+    private final Queue<Command> commands = new ConcurrentLinkedQueue<>();
+
+    // Only touched by the ticker thread
+    private final HierarchicalTimingWheel<UUID> wheel;
+    private final Map<UUID, Timeout<UUID>> timeouts = new HashMap<>();
+    private final ArrayDeque<UUID> expired = new ArrayDeque<>();
+
+    private final AtomicLong cancelledOrders = new AtomicLong();
+    private volatile int pendingTimers;
+    private volatile boolean running;
+    private Thread ticker;
+
+    public OrderExpiryScheduler(OrderService orderService, Duration pendingTimeout, Duration tick, int batchSize) {
+        this(orderService, pendingTimeout, tick, batchSize, System::currentTimeMillis);
+    }
+
+    OrderExpiryScheduler(OrderService orderService, Duration pendingTimeout, Duration tick, int batchSize,
+                         LongSupplier clock) {
+        this.orderService = orderService;
+        this.timeoutMillis = pendingTimeout.toMillis();
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), clock.getAsLong());
+    }
+
+    /**
+     * Starts the ticker thread and hooks the scheduler into the order service.
+     */
+    public void start() {
+        running = true;
+        ticker = new Thread(this::tickLoop, "order-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+        orderService.setExpiryScheduler(this);
+    }
+
+    @Override
+    public void close() {
+        orderService.setExpiryScheduler(null);
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * Starts the timeout of a newly created order. Safe to call from any thread.
+     */
+    public void register(UUID orderId) {
+        commands.offer(new Command(orderId, clock.getAsLong() + timeoutMillis));
+    }
+
+    /**
+     * Starts the timeout of an order created earlier, e.g. one restored from a snapshot, counting from
+     * its creation date. An order already past its deadline is cancelled on the next tick. Safe to call
+     * from any thread.
+     * @param dateCreated when the order was created, in the system time zone; null counts from now.
+     */
+    public void register(UUID orderId, LocalDateTime dateCreated) {
+        if (dateCreated == null) {
+            register(orderId);
+            return;
+        }
+        long createdMillis = dateCreated.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        commands.offer(new Command(orderId, createdMillis + timeoutMillis));
+    }
+
+    /**
+     * Stops the timeout of an order that left PENDING or was deleted. Safe to call from any thread.
+     */
+    public void unregister(UUID orderId) {
+        commands.offer(new Command(orderId, CANCEL));
+    }
+
+    /**
+     * @return the number of orders waiting for their timeout, as of the last tick.
+     */
+    public int getPendingTimers() {
+        return pendingTimers;
+    }
+
+    public long getCancelledOrders() {
+        return cancelledOrders.get();
+    }
+
+    /**
+     * Applies queued registrations, advances the wheel to now and cancels one batch of expired orders.
+     * @return the number of orders cancelled.
+     */
+    int tick() {
+        Command command;
+        while ((command = commands.poll()) != null) {
+            if (command.deadlineMillis == CANCEL) {
+                Timeout<UUID> timeout = timeouts.remove(command.orderId);
+                if (timeout != null) {
+                    wheel.cancel(timeout);
+                }
+            } else {
+                Timeout<UUID> previous = timeouts.put(command.orderId,
+                        wheel.schedule(command.orderId, command.deadlineMillis));
+                if (previous != null) {
+                    wheel.cancel(previous);
+                }
+            }
+        }
+
+        wheel.advance(clock.getAsLong(), orderId -> {
+            timeouts.remove(orderId);
+            expired.add(orderId);
+        });
+        pendingTimers = wheel.size();
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<UUID> batch = new ArrayList<>(Math.min(batchSize, expired.size()));
+        while (batch.size() < batchSize && !expired.isEmpty()) {
+            batch.add(expired.poll());
+        }
+        int cancelled = orderService.cancelExpiredOrders(batch);
+        cancelledOrders.addAndGet(cancelled);
+        return cancelled;
+    }
+
+    private void tickLoop() {
+        long tickMillis = wheel.getTickMillis();
+        while (running) {
+            try {
+                int cancelled = tick();
+                if (cancelled > 0) {
+                    log.info("Cancelled {} orders pending for more than {} ms", cancelled, timeoutMillis);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Order expiry tick failed", ex);
+            }
+            // Keep draining without sleeping while a backlog of expired orders is left
+            if (expired.isEmpty()) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Command(UUID orderId, long deadlineMillis) {
+    }
+}
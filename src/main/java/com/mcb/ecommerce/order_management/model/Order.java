@@ -14,6 +14,7 @@ public class Order {
     private double price;
     private OrderStatus status;
     private LocalDateTime dateCreated;
+    private long version;
 
     public Order() {
     }
@@ -27,4 +28,24 @@ public class Order {
         this.status = OrderStatus.PENDING;
         this.dateCreated = LocalDateTime.now();
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a copy of this order with the given status and the next version number.
+     * Stored orders are replaced rather than mutated, so concurrent readers never see a
+     * half-applied update and the repository can compare-and-set on the old instance.
+     * @param newStatus the status of the copy.
+     * @return the updated copy.
+     */
+    public Order withStatus(OrderStatus newStatus) {
+        Order updated = new Order();
+        updated.orderId = orderId;
+        updated.customerName = customerName;
+        updated.productName = productName;
+        updated.quantity = quantity;
+        updated.price = price;
+        updated.status = newStatus;
+        updated.dateCreated = dateCreated;
+        updated.version = version + 1;
+        return updated;
+    }
+}
@@ -1,5 +1,12 @@
 package com.mcb.ecommerce.order_management.model;
 
 public enum OrderStatus {
-    PENDING, COMPLETED, CANCELLED
+    PENDING, COMPLETED, CANCELLED;
+
+    /**
+     * @return true if no further status transition is allowed once an order reaches this status.
+     */
+    public boolean isTerminal() {
+        return this != PENDING;
+    }
 }
@@ -1,5 +1,7 @@
 package com.mcb.ecommerce.order_management.model;
 
+import com.mcb.ecommerce.order_management.exception.IllegalStatusTransitionException;
+
 public class OrderStatusFactory {
     public static OrderStatus createOrderStatus(String status) {
         return switch (status.toUpperCase()) {
@@ -9,4 +11,20 @@ public class OrderStatusFactory {
             default -> throw new IllegalArgumentException("Unknown status");
         };
     }
+
+    /**
+     * Resolves the status an order moves to, rejecting transitions out of terminal states.
+     * Re-applying the current status is allowed so retried updates stay idempotent.
+     * @param current the status the order is in now.
+     * @param requested the status requested by the caller.
+     * @return the new status.
+     * @throws IllegalStatusTransitionException if the order is in a terminal state.
+     */
+    public static OrderStatus transition(OrderStatus current, String requested) {
+        OrderStatus next = createOrderStatus(requested);
+        if (current != null && current != next && current.isTerminal()) {
+            throw new IllegalStatusTransitionException(current, next);
+        }
+        return next;
+    }
 }
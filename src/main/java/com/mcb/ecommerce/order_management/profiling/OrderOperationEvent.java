@@ -0,0 +1,36 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around one {@code OrderService} operation.
+ *
+ * Use it as begin / end / shouldCommit: fill in the fields only when {@link #shouldCommit()}
+ * returns true. While the event is disabled the JIT reduces that to a couple of field reads
+ * and the event object is never allocated.
+ */
+@Name("com.mcb.order.OrderOperation")
+@Label("Order Operation")
+@Category({"MCB", "Orders"})
+@Description("An order service operation with its result size and the rows it scanned")
+@StackTrace(false)
+public class OrderOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Access Path")
+    @Description("Index or scan a query used, empty for operations by id")
+    public String accessPath;
+
+    @Label("Rows Scanned")
+    public long rowsScanned;
+
+    @Label("Result Size")
+    public int resultSize;
+}
@@ -0,0 +1,29 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around one call into the order repository. Follows the same
+ * begin / end / shouldCommit pattern as {@link OrderOperationEvent}.
+ */
+@Name("com.mcb.order.OrderStore")
+@Label("Order Store Call")
+@Category({"MCB", "Orders"})
+@Description("A call into the order repository")
+@StackTrace(false)
+public class OrderStoreEvent extends Event {
+
+    @Label("Store")
+    public String store;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Result Size")
+    public int resultSize;
+}
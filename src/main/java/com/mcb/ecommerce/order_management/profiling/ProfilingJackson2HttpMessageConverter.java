@@ -0,0 +1,37 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Jackson converter that records a {@link ResponseSerializationEvent} for every body it writes,
+ * so time spent serializing large order lists is visible next to the service and repository events.
+ */
+public class ProfilingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public ProfilingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ResponseSerializationEvent event = new ResponseSerializationEvent();
+        event.begin();
+
+        super.writeInternal(object, type, outputMessage);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.bodyType = object.getClass().getSimpleName();
+            event.elements = object instanceof Collection<?> collection ? collection.size() : 1;
+            event.commit();
+        }
+    }
+}
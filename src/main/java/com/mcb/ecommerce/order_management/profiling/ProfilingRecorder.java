@@ -0,0 +1,150 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Starts, dumps and stops an on-demand Flight Recorder recording of this process.
+ * At most one recording runs at a time; its files are written to {@code order.profiling.directory},
+ * which keeps only the newest {@code order.profiling.max-files} of them.
+ */
+@Component
+public class ProfilingRecorder {
+
+    private static final String RECORDING_NAME = "order-profiling";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final int maxFiles;
+    private Recording recording;
+
+    public ProfilingRecorder(@Value("${order.profiling.directory:${java.io.tmpdir}/order-profiling}") Path directory,
+                             @Value("${order.profiling.max-files:5}") int maxFiles) {
+        this.directory = directory;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    /**
+     * Starts a recording with the given JDK settings plus all order events.
+     * @param settings name of a JDK recording configuration, "default" or "profile".
+     * @param maxAge how much history the recording keeps, or null to keep everything.
+     * @return true if started, false if a recording is already running.
+     * @throws IllegalArgumentException if the settings name is unknown.
+     */
+    public synchronized boolean start(String settings, Duration maxAge) {
+        if (isRunning()) {
+            return false;
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settings);
+        }
+
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        if (maxAge != null) {
+            started.setMaxAge(maxAge);
+        }
+        started.enable(OrderOperationEvent.class).withoutThreshold();
+        started.enable(OrderStoreEvent.class).withoutThreshold();
+        started.enable(ResponseSerializationEvent.class).withoutThreshold();
+        started.start();
+        recording = started;
+        return true;
+    }
+
+    /**
+     * Writes what the running recording has collected so far to a file and keeps recording.
+     * @return the written file, or null if no recording is running.
+     */
+    public synchronized Path dump() {
+        if (!isRunning()) {
+            return null;
+        }
+        return writeTo(recording);
+    }
+
+    /**
+     * Stops the running recording and writes it to a file.
+     * @return the written file, or null if no recording is running.
+     */
+    public synchronized Path stop() {
+        if (!isRunning()) {
+            return null;
+        }
+        try {
+            recording.stop();
+            return writeTo(recording);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", isRunning());
+        status.put("directory", directory.toAbsolutePath().toString());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("size", recording.getSize());
+            status.put("maxAge", recording.getMaxAge());
+        }
+        return status;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private Path writeTo(Recording source) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+            source.dump(file);
+            deleteOldFiles();
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write recording to " + directory, ex);
+        }
+    }
+
+    // File names sort by their timestamp, so everything after the newest maxFiles is older
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(ProfilingRecorder::isRecordingFile).sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path old : files.subList(Math.min(maxFiles, files.size()), files.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static boolean isRecordingFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(RECORDING_NAME + "-") && name.endsWith(".jfr");
+    }
+}
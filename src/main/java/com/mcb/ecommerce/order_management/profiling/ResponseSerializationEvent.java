@@ -0,0 +1,26 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event around writing one JSON response body.
+ */
+@Name("com.mcb.order.ResponseSerialization")
+@Label("Response Serialization")
+@Category({"MCB", "HTTP"})
+@Description("Serialization of a response body to JSON")
+@StackTrace(false)
+public class ResponseSerializationEvent extends Event {
+
+    @Label("Body Type")
+    public String bodyType;
+
+    @Label("Elements")
+    @Description("Number of elements if the body is a collection, otherwise 1")
+    public int elements;
+}
@@ -0,0 +1,87 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * HTTP Basic authentication for the reactive API, against the same users and password encoder as
+ * the servlet security chain. Every request must authenticate; the authenticated user is stored as
+ * an exchange attribute for role checks in the handlers.
+ */
+public class BasicAuthWebFilter implements WebFilter {
+
+    static final String USER_ATTRIBUTE = BasicAuthWebFilter.class.getName() + ".user";
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final UserDetailsService userDetailsService;
+    private final PasswordEncoder passwordEncoder;
+
+    public BasicAuthWebFilter(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        UserDetails user = authenticate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (user == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"orders\"");
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getAttributes().put(USER_ATTRIBUTE, user);
+        return chain.filter(exchange);
+    }
+
+    /**
+     * @return true if the user has the role, given without the ROLE_ prefix.
+     */
+    static boolean hasRole(UserDetails user, String role) {
+        String authority = "ROLE_" + role;
+        for (GrantedAuthority granted : user.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The user store is in memory, looking a user up does not block
+    private UserDetails authenticate(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length())) {
+            return null;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC_PREFIX.length()).trim()),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        int separator = credentials.indexOf(':');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(credentials.substring(0, separator));
+            boolean valid = user.isEnabled() && user.isAccountNonLocked()
+                    && passwordEncoder.matches(credentials.substring(separator + 1), user.getPassword());
+            return valid ? user : null;
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+}
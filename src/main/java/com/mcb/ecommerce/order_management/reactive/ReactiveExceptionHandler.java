@@ -0,0 +1,104 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcb.ecommerce.order_management.exception.IllegalStatusTransitionException;
+import com.mcb.ecommerce.order_management.exception.OrderNotFoundException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps exceptions of the reactive order API to the same statuses and error bodies as
+ * {@code GlobalExceptionHandler} does for the servlet API. Errors raised while a list is streamed
+ * can only be reported this way before the first order is written; after that the connection is closed.
+ */
+public class ReactiveExceptionHandler implements WebExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveExceptionHandler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        HttpStatus status;
+        if (ex instanceof OrderNotFoundException notFound) {
+            status = HttpStatus.NOT_FOUND;
+            body.put("message", "Order not found");
+            body.put("orderId", notFound.getOrderId());
+        } else if (ex instanceof ConstraintViolationException violations) {
+            status = HttpStatus.BAD_REQUEST;
+            body.put("message", "Validation failed");
+            Map<String, String> errors = new HashMap<>();
+            for (ConstraintViolation<?> violation : violations.getConstraintViolations()) {
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            body.put("errors", errors);
+        } else if (ex instanceof WebExchangeBindException bind) {
+            status = HttpStatus.BAD_REQUEST;
+            body.put("message", "Validation failed");
+            Map<String, String> errors = new HashMap<>();
+            bind.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+            body.put("errors", errors);
+        } else if (ex instanceof IllegalArgumentException || ex instanceof DateTimeException
+                || ex instanceof ServerWebInputException) {
+            status = HttpStatus.BAD_REQUEST;
+            body.put("message", "Invalid argument provided");
+            body.put("details", ex.getMessage());
+        } else if (ex instanceof OrderVersionMismatchException) {
+            status = HttpStatus.PRECONDITION_FAILED;
+            body.put("message", "Order was modified concurrently");
+            body.put("details", ex.getMessage());
+        } else if (ex instanceof IllegalStatusTransitionException) {
+            status = HttpStatus.CONFLICT;
+            body.put("message", "Illegal status transition");
+            body.put("details", ex.getMessage());
+        } else if (ex instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+            body.put("message", "You do not have permission to access this resource.");
+        } else {
+            log.error("Unexpected error on {}", exchange.getRequest().getPath(), ex);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            body.put("message", "An unexpected error occurred");
+            body.put("details", ex.getMessage());
+        }
+        body.put("status", status.value());
+
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException serializationFailure) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.exception.OrderNotFoundException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
+import com.mcb.ecommerce.order_management.model.Order;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Functional endpoints of the reactive order API. They mirror {@code OrderController}, except that
+ * lists are streamed as newline-delimited JSON, one order per line, written as the client reads them.
+ */
+public class ReactiveOrderHandler {
+
+    private static final String ORDERS_PATH = "/api/v1/orders";
+
+    private final ReactiveOrderService orderService;
+    private final Validator validator;
+    private final DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+
+    public ReactiveOrderHandler(ReactiveOrderService orderService, Validator validator) {
+        this.orderService = orderService;
+        this.validator = validator;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .path(ORDERS_PATH, orders -> orders
+                        .GET("", this::getOrders)
+                        .GET("/search", this::searchOrders)
+                        .GET("/customers/{customerName}/orders", this::getOrderHistory)
+                        .GET("/{id}", this::getOrderById)
+                        .POST("", this::createOrder)
+                        .PUT("/{id}", this::updateOrder)
+                        .DELETE("/{id}", this::deleteOrder))
+                .build();
+    }
+
+    Mono<ServerResponse> getOrders(ServerRequest request) {
+        return stream(orderService.getOrders(request.queryParam("customerName").orElse(null),
+                request.queryParam("status").orElse(null), request.queryParam("sort").orElse(null)));
+    }
+
+    Mono<ServerResponse> searchOrders(ServerRequest request) {
+        return request.bind(OrderSearchRequest.class, binder -> binder.setConversionService(conversionService))
+                .map(this::validate)
+                .flatMap(searchRequest -> stream(orderService.searchOrders(searchRequest)));
+    }
+
+    Mono<ServerResponse> getOrderHistory(ServerRequest request) {
+        LocalDateTime since = request.queryParam("since").map(LocalDateTime::parse).orElse(null);
+        Integer limit = request.queryParam("limit").map(Integer::valueOf).orElse(null);
+        return stream(orderService.getOrderHistory(request.pathVariable("customerName"), since, limit));
+    }
+
+    Mono<ServerResponse> getOrderById(ServerRequest request) {
+        return orderService.getOrderById(orderId(request))
+                .flatMap(order -> ServerResponse.ok().eTag(Long.toString(order.getVersion())).bodyValue(order));
+    }
+
+    Mono<ServerResponse> createOrder(ServerRequest request) {
+        String principal = requireAdmin(request).getUsername();
+        String idempotencyKey = request.headers().firstHeader("Idempotency-Key");
+        return request.bodyToMono(OrderRequest.class)
+                .map(this::validate)
+                .flatMap(orderRequest -> orderService.createOrder(orderRequest, principal, idempotencyKey))
+                .flatMap(order -> ServerResponse.created(URI.create(ORDERS_PATH + "/" + order.getOrderId()))
+                        .bodyValue(order));
+    }
+
+    Mono<ServerResponse> updateOrder(ServerRequest request) {
+        requireAdmin(request);
+        UUID orderId = orderId(request);
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        Long expectedVersion = parseVersion(ifMatch);
+        // The status is an enum, an unknown value already fails to decode
+        return request.bodyToMono(OrderUpdateRequest.class)
+                .flatMap(updateRequest -> orderService.updateOrder(orderId, updateRequest, expectedVersion))
+                // If-Match: * asks for any current version, so a missing order fails the precondition
+                .onErrorMap(OrderNotFoundException.class,
+                        ex -> isWildcard(ifMatch) ? new OrderVersionMismatchException(orderId) : ex)
+                .flatMap(order -> ServerResponse.ok().eTag(Long.toString(order.getVersion())).bodyValue(order));
+    }
+
+    Mono<ServerResponse> deleteOrder(ServerRequest request) {
+        requireAdmin(request);
+        return orderService.deleteOrder(orderId(request)).then(ServerResponse.noContent().build());
+    }
+
+    // NDJSON is encoded and flushed element by element, so the orders are only produced as fast
+    // as the connection drains them
+    private static Mono<ServerResponse> stream(Flux<Order> orders) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(orders, Order.class);
+    }
+
+    private <T> T validate(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return body;
+    }
+
+    private static UserDetails requireAdmin(ServerRequest request) {
+        UserDetails user = (UserDetails) request.attribute(BasicAuthWebFilter.USER_ATTRIBUTE).orElse(null);
+        if (user == null || !BasicAuthWebFilter.hasRole(user, "ADMIN")) {
+            throw new AccessDeniedException(HttpStatus.FORBIDDEN.getReasonPhrase());
+        }
+        return user;
+    }
+
+    private static UUID orderId(ServerRequest request) {
+        return UUID.fromString(request.pathVariable("id"));
+    }
+
+    // Accepts the ETag forms "3", W/"3" and 3; * matches any version, like the servlet controller
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || isWildcard(ifMatch)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must contain an order version");
+        }
+    }
+
+    private static boolean isWildcard(String ifMatch) {
+        return ifMatch != null && ifMatch.trim().equals("*");
+    }
+}
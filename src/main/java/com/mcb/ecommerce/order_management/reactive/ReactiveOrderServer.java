@@ -0,0 +1,83 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.Closeable;
+
+/**
+ * Serves the reactive order API on its own Reactor Netty server, next to the servlet container.
+ * A small, fixed set of event loop threads handles every connection; a connection only costs its
+ * channel and the orders it is currently writing, not a thread.
+ */
+public class ReactiveOrderServer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOrderServer.class);
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private DisposableServer server;
+
+    /**
+     * @param port the port to listen on, 0 for any free port.
+     */
+    public ReactiveOrderServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    /**
+     * Assembles the routes with the application's JSON mapping, the given filters and the error
+     * mapping of {@link ReactiveExceptionHandler}.
+     * @param filters applied in order, e.g. replica consistency and then authentication.
+     */
+    public static HttpHandler httpHandler(RouterFunction<ServerResponse> routes, ObjectMapper objectMapper,
+                                          WebFilter... filters) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        // Built by hand rather than from the strategies, so only our exception handler formats errors
+        return WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(routes, strategies))
+                .filter(filters)
+                .exceptionHandler(new ReactiveExceptionHandler(objectMapper))
+                .build();
+    }
+
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive order API listening on port {}", server.port());
+    }
+
+    /**
+     * @return the port the server listens on.
+     */
+    public int getPort() {
+        return server.port();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+}
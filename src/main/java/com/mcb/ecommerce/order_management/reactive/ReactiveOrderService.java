@@ -0,0 +1,72 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Non-blocking facade over {@link OrderService} for the reactive API.
+ *
+ * The order store is in memory and its writes are compare-and-set loops, so no operation waits on
+ * I/O or a lock and all of them can run on the event loop. Nothing runs before subscription.
+ * Lists are {@link Flux}es over the service's order streams, which are closed when the subscriber
+ * completes or cancels. Histories, searches and listings without a sort read each order from the
+ * indexes only when the subscriber requests it, so a slow reader holds back the reads instead of
+ * the server collecting the whole result first. A sort needs every match before the first one,
+ * so sorted results are collected and then emitted on demand.
+ */
+public class ReactiveOrderService {
+
+    private final OrderService orderService;
+
+    public ReactiveOrderService(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    public Mono<Order> createOrder(OrderRequest orderRequest, String principal, String idempotencyKey) {
+        return Mono.fromCallable(() -> orderService.createOrder(orderRequest, principal, idempotencyKey));
+    }
+
+    /**
+     * @see OrderService#streamOrders(String, String, String)
+     */
+    public Flux<Order> getOrders(String customerName, String status, String sort) {
+        return Flux.fromStream(() -> orderService.streamOrders(customerName, status, sort));
+    }
+
+    /**
+     * @see OrderService#streamSearchResults(OrderSearchRequest)
+     */
+    public Flux<Order> searchOrders(OrderSearchRequest searchRequest) {
+        return Flux.fromStream(() -> orderService.streamSearchResults(searchRequest));
+    }
+
+    public Mono<Order> getOrderById(UUID orderId) {
+        return Mono.fromCallable(() -> orderService.getOrderById(orderId));
+    }
+
+    /**
+     * @see OrderService#updateOrder(UUID, OrderUpdateRequest, Long)
+     */
+    public Mono<Order> updateOrder(UUID orderId, OrderUpdateRequest updateRequest, Long expectedVersion) {
+        return Mono.fromCallable(() -> orderService.updateOrder(orderId, updateRequest, expectedVersion));
+    }
+
+    public Mono<Void> deleteOrder(UUID orderId) {
+        return Mono.fromRunnable(() -> orderService.deleteOrder(orderId));
+    }
+
+    /**
+     * @see OrderService#streamOrderHistory(String, LocalDateTime, Integer)
+     */
+    public Flux<Order> getOrderHistory(String customerName, LocalDateTime since, Integer limit) {
+        return Flux.fromStream(() -> orderService.streamOrderHistory(customerName, since, limit));
+    }
+}
@@ -0,0 +1,50 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.mcb.ecommerce.order_management.replication.ReplicationFollower;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reactive counterpart of {@code ReplicaConsistencyFilter}: on a read replica, writes are rejected
+ * since they have to go to the leader, and reads are rejected with 503 and a Retry-After header
+ * while the follower is further behind the leader than the configured staleness bound.
+ */
+public class ReplicaConsistencyWebFilter implements WebFilter {
+
+    private final ReplicationFollower follower;
+    private final long maxStalenessMillis;
+
+    public ReplicaConsistencyWebFilter(ReplicationFollower follower, long maxStalenessMillis) {
+        this.follower = follower;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return reject(exchange.getResponse(), "This node is a read replica, send writes to the leader");
+        }
+        if (follower.getStalenessMillis() > maxStalenessMillis) {
+            return reject(exchange.getResponse(), "Replica is behind the leader, retry later");
+        }
+        return chain.filter(exchange);
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, String message) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"status\":503,\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
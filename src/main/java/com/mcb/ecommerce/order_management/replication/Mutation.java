@@ -0,0 +1,51 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+
+import java.util.UUID;
+
+/**
+ * One entry of the replication log: an order that was created or updated, or the id of a deleted order.
+ */
+public class Mutation {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Order order;
+    private final UUID orderId;
+
+    private Mutation(long sequence, Type type, Order order, UUID orderId) {
+        this.sequence = sequence;
+        this.type = type;
+        this.order = order;
+        this.orderId = orderId;
+    }
+
+    public static Mutation upsert(long sequence, Order order) {
+        return new Mutation(sequence, Type.UPSERT, order, order.getOrderId());
+    }
+
+    public static Mutation delete(long sequence, UUID orderId) {
+        return new Mutation(sequence, Type.DELETE, null, orderId);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+}
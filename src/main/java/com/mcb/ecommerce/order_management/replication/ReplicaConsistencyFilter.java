@@ -0,0 +1,63 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Guards the API of a read replica. Every write, including the admin endpoints that restore or write
+ * snapshots and control profiling, is rejected since it has to go to the leader. Order reads are
+ * rejected with 503 and a Retry-After header while the follower is further behind the leader than
+ * the configured staleness bound; other reads, such as the replication status, are always served.
+ */
+public class ReplicaConsistencyFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/";
+    private static final String ORDERS_PATH = "/api/v1/orders";
+
+    private final ReplicationFollower follower;
+    private final long maxStalenessMillis;
+
+    public ReplicaConsistencyFilter(ReplicationFollower follower, long maxStalenessMillis) {
+        this.follower = follower;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith(API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            reject(response, "This node is a read replica, send writes to the leader");
+            return;
+        }
+        if (path(request).startsWith(ORDERS_PATH) && follower.getStalenessMillis() > maxStalenessMillis) {
+            reject(response, "Replica is behind the leader, retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":503,\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,260 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follower side of replication. Connects to the leader, catches up from a snapshot or resumes
+ * the log where it left off, and applies every mutation to its own {@link OrderRepository}
+ * on a single thread.
+ *
+ * The leader assigns sequence numbers after a write lands, so two writes to the same order can
+ * reach the log out of order. Mutations are therefore applied by version: an update only replaces
+ * an older version, and a deleted id is remembered so a late update cannot bring it back.
+ */
+public class ReplicationFollower implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private static final int MAX_TOMBSTONES = 100_000;
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 200;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 5_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderRepository orderRepository;
+    private final String leaderHost;
+    private final int leaderPort;
+
+    // Only touched by the replication thread
+    private final Set<UUID> tombstones = new LinkedHashSet<>();
+    private Set<UUID> snapshotIds;
+    private long snapshotSequence;
+
+    private volatile long epoch;
+    private volatile long appliedSequence;
+    private volatile long leaderSequence;
+    private volatile long heartbeatSequence = -1;
+    private volatile long heartbeatReceivedNanos;
+    private volatile long syncedAtNanos;
+    private volatile boolean synced;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+
+    public ReplicationFollower(OrderRepository orderRepository, String leaderHost, int leaderPort) {
+        this.orderRepository = orderRepository;
+        this.leaderHost = leaderHost;
+        this.leaderPort = leaderPort;
+    }
+
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::replicate, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    /**
+     * @return how many log entries the leader had written that are not applied here yet, as of the last heartbeat.
+     */
+    public long getLagEntries() {
+        return Math.max(0L, leaderSequence - appliedSequence);
+    }
+
+    /**
+     * Upper bound on how old the data served by this follower is: the time since the follower last
+     * had everything the leader had written when it sent a heartbeat.
+     * @return the staleness in milliseconds, or Long.MAX_VALUE if the follower has never caught up.
+     */
+    public long getStalenessMillis() {
+        if (!synced) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - syncedAtNanos);
+    }
+
+    private void replicate() {
+        long delay = MIN_RECONNECT_DELAY_MILLIS;
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(leaderHost, leaderPort), (int) MAX_RECONNECT_DELAY_MILLIS);
+                connection.setTcpNoDelay(true);
+                connected = true;
+                delay = MIN_RECONNECT_DELAY_MILLIS;
+                follow(connection);
+            } catch (IOException ex) {
+                if (running) {
+                    log.info("Replication from {}:{} interrupted: {}", leaderHost, leaderPort, ex.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+
+            if (running) {
+                sleep(delay);
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+    }
+
+    private void follow(Socket connection) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        out.writeByte(ReplicationProtocol.HELLO);
+        out.writeLong(epoch);
+        out.writeLong(appliedSequence);
+        out.flush();
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE));
+        while (running) {
+            byte frame;
+            try {
+                frame = in.readByte();
+            } catch (EOFException ex) {
+                return;
+            }
+            switch (frame) {
+                case ReplicationProtocol.RESUME -> epoch = in.readLong();
+                case ReplicationProtocol.SNAPSHOT_BEGIN -> beginSnapshot(in.readLong(), in.readLong());
+                case ReplicationProtocol.SNAPSHOT_TOMBSTONE -> tombstone(ReplicationProtocol.readUuid(in));
+                case ReplicationProtocol.SNAPSHOT_ORDER -> applySnapshotOrder(ReplicationProtocol.readOrder(in));
+                case ReplicationProtocol.SNAPSHOT_END -> endSnapshot();
+                case ReplicationProtocol.UPSERT -> {
+                    long sequence = in.readLong();
+                    applyUpsert(ReplicationProtocol.readOrder(in));
+                    applied(sequence);
+                }
+                case ReplicationProtocol.DELETE -> {
+                    long sequence = in.readLong();
+                    applyDelete(ReplicationProtocol.readUuid(in));
+                    applied(sequence);
+                }
+                case ReplicationProtocol.HEARTBEAT -> heartbeat(in.readLong());
+                default -> throw new IOException("Unknown replication frame " + frame);
+            }
+        }
+    }
+
+    private void beginSnapshot(long leaderEpoch, long sequence) {
+        epoch = leaderEpoch;
+        snapshotSequence = sequence;
+        // Tombstones survive the snapshot: an update logged after its delete may still follow it
+        snapshotIds = new HashSet<>();
+    }
+
+    private void applySnapshotOrder(Order order) {
+        snapshotIds.add(order.getOrderId());
+        Order current = orderRepository.findById(order.getOrderId()).orElse(null);
+        if (current == null) {
+            orderRepository.save(order);
+        } else if (!current.equals(order)) {
+            // The snapshot is authoritative, even over a higher version from an earlier leader run
+            orderRepository.compareAndSet(current, order);
+        }
+    }
+
+    private void endSnapshot() {
+        for (Order order : orderRepository.findAll()) {
+            if (!snapshotIds.contains(order.getOrderId())) {
+                // Deleted on the leader while this follower was away
+                applyDelete(order.getOrderId());
+            }
+        }
+        snapshotIds = null;
+        leaderSequence = Math.max(leaderSequence, snapshotSequence);
+        applied(snapshotSequence);
+        log.info("Replication snapshot applied at sequence {}", snapshotSequence);
+    }
+
+    private void applyUpsert(Order order) {
+        if (tombstones.contains(order.getOrderId())) {
+            return;
+        }
+        Order current = orderRepository.findById(order.getOrderId()).orElse(null);
+        if (current == null) {
+            orderRepository.save(order);
+        } else if (order.getVersion() > current.getVersion()) {
+            orderRepository.compareAndSet(current, order);
+        }
+    }
+
+    private void applyDelete(UUID orderId) {
+        orderRepository.deleteById(orderId);
+        tombstone(orderId);
+    }
+
+    private void tombstone(UUID orderId) {
+        tombstones.add(orderId);
+        if (tombstones.size() > MAX_TOMBSTONES) {
+            Iterator<UUID> eldest = tombstones.iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void applied(long sequence) {
+        appliedSequence = sequence;
+        markSyncedIfCaughtUp();
+    }
+
+    private void heartbeat(long sequence) {
+        leaderSequence = sequence;
+        heartbeatSequence = sequence;
+        heartbeatReceivedNanos = System.nanoTime();
+        markSyncedIfCaughtUp();
+    }
+
+    private void markSyncedIfCaughtUp() {
+        if (snapshotIds == null && heartbeatSequence >= 0 && appliedSequence >= heartbeatSequence) {
+            syncedAtNanos = heartbeatReceivedNanos;
+            synced = true;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.replication.ReplicationLog.LogTruncatedException;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Leader side of replication. Accepts follower connections on a TCP port and streams the
+ * {@link ReplicationLog} to each of them on a dedicated thread, starting with a snapshot of the
+ * repository when the follower is new, belongs to a previous leader run, or has fallen out of the log.
+ */
+public class ReplicationLeader implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLeader.class);
+
+    // How long a caught-up session sleeps before polling the log again
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderRepository orderRepository;
+    private final ReplicationLog replicationLog;
+    private final int port;
+    private final long heartbeatIntervalNanos;
+    // Identifies this leader run, followers of an earlier run must start over from a snapshot
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final Set<FollowerSession> sessions = ConcurrentHashMap.newKeySet();
+
+    private volatile ServerSocket serverSocket;
+    private volatile boolean running;
+
+    public ReplicationLeader(OrderRepository orderRepository, ReplicationLog replicationLog,
+                             int port, long heartbeatIntervalMillis) {
+        this.orderRepository = orderRepository;
+        this.replicationLog = replicationLog;
+        this.port = port;
+        this.heartbeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMillis);
+    }
+
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port);
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Replication leader listening on port {}", serverSocket.getLocalPort());
+    }
+
+    /**
+     * @return the port followers connect to, useful when started on port 0.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getLastSequence() {
+        return replicationLog.lastSequence();
+    }
+
+    public List<FollowerSession> getFollowers() {
+        return List.copyOf(sessions);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (FollowerSession session : sessions) {
+            session.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                FollowerSession session = new FollowerSession(socket);
+                sessions.add(session);
+                Thread thread = new Thread(session, "replication-session-" + socket.getRemoteSocketAddress());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException ex) {
+                if (running) {
+                    log.warn("Accepting replication follower failed", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams the log to one connected follower.
+     */
+    public class FollowerSession implements Runnable, Closeable {
+
+        private final Socket socket;
+        private volatile long sentSequence;
+
+        FollowerSession(Socket socket) {
+            this.socket = socket;
+        }
+
+        public String getAddress() {
+            return String.valueOf(socket.getRemoteSocketAddress());
+        }
+
+        public long getSentSequence() {
+            return sentSequence;
+        }
+
+        @Override
+        public void run() {
+            try (socket) {
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+
+                if (in.readByte() != ReplicationProtocol.HELLO) {
+                    throw new IOException("Expected HELLO from follower");
+                }
+                long followerEpoch = in.readLong();
+                long followerSequence = in.readLong();
+
+                long next;
+                if (followerEpoch == epoch && followerSequence <= replicationLog.lastSequence()
+                        && replicationLog.isRetained(followerSequence + 1)) {
+                    out.writeByte(ReplicationProtocol.RESUME);
+                    out.writeLong(epoch);
+                    sentSequence = followerSequence;
+                    next = followerSequence + 1;
+                } else {
+                    next = sendSnapshot(out);
+                }
+                stream(out, next);
+            } catch (IOException ex) {
+                if (running) {
+                    log.info("Replication follower {} disconnected: {}", getAddress(), ex.getMessage());
+                }
+            } finally {
+                sessions.remove(this);
+            }
+        }
+
+        private long sendSnapshot(DataOutputStream out) throws IOException {
+            // Anything written after this sequence is also streamed afterwards, and followers ignore
+            // versions they already have, so the snapshot does not need to stop writers
+            long sequence = replicationLog.lastSequence();
+            out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+            out.writeLong(epoch);
+            out.writeLong(sequence);
+            // Deletes still in the log, so an update that was logged after its delete cannot
+            // bring the order back on the follower once the snapshot is applied
+            for (long seq = Math.max(1, sequence - replicationLog.capacity() + 1); seq <= sequence; seq++) {
+                Mutation mutation = readRetained(seq);
+                if (mutation != null && mutation.getType() == Mutation.Type.DELETE) {
+                    out.writeByte(ReplicationProtocol.SNAPSHOT_TOMBSTONE);
+                    ReplicationProtocol.writeUuid(out, mutation.getOrderId());
+                }
+            }
+            Iterator<Order> orders = orderRepository.streamAll().iterator();
+            while (orders.hasNext()) {
+                out.writeByte(ReplicationProtocol.SNAPSHOT_ORDER);
+                ReplicationProtocol.writeOrder(out, orders.next());
+            }
+            out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+            out.flush();
+            sentSequence = sequence;
+            return sequence + 1;
+        }
+
+        private Mutation readRetained(long seq) {
+            try {
+                return replicationLog.read(seq);
+            } catch (LogTruncatedException ex) {
+                return null;
+            }
+        }
+
+        private void stream(DataOutputStream out, long next) throws IOException {
+            long lastHeartbeat = System.nanoTime() - heartbeatIntervalNanos;
+            while (running) {
+                Mutation mutation;
+                try {
+                    mutation = replicationLog.read(next);
+                } catch (LogTruncatedException ex) {
+                    log.info("Replication follower {} fell out of the log, resending snapshot", getAddress());
+                    next = sendSnapshot(out);
+                    continue;
+                }
+
+                if (mutation != null) {
+                    writeMutation(out, mutation);
+                    sentSequence = mutation.getSequence();
+                    next++;
+                }
+
+                long now = System.nanoTime();
+                if (now - lastHeartbeat >= heartbeatIntervalNanos) {
+                    out.writeByte(ReplicationProtocol.HEARTBEAT);
+                    out.writeLong(replicationLog.lastSequence());
+                    out.flush();
+                    lastHeartbeat = now;
+                }
+                if (mutation == null) {
+                    // Caught up: push out what is buffered and wait for new writes
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private void writeMutation(DataOutputStream out, Mutation mutation) throws IOException {
+            if (mutation.getType() == Mutation.Type.UPSERT) {
+                out.writeByte(ReplicationProtocol.UPSERT);
+                out.writeLong(mutation.getSequence());
+                ReplicationProtocol.writeOrder(out, mutation.getOrder());
+            } else {
+                out.writeByte(ReplicationProtocol.DELETE);
+                out.writeLong(mutation.getSequence());
+                ReplicationProtocol.writeUuid(out, mutation.getOrderId());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.repository.OrderChangeListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ordered log of repository mutations on the leader, kept in a fixed size ring buffer.
+ * Writers take the next sequence number with one atomic increment and publish into their slot,
+ * so appending never blocks other writers. Followers tail the log by sequence number; a follower
+ * that falls further behind than the ring capacity has to catch up from a snapshot instead.
+ */
+public class ReplicationLog implements OrderChangeListener {
+
+    private final AtomicReferenceArray<Mutation> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param capacity number of retained mutations, rounded up to a power of two.
+     */
+    public ReplicationLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void onChange(Order before, Order after) {
+        long seq = sequence.incrementAndGet();
+        publish(after != null ? Mutation.upsert(seq, after) : Mutation.delete(seq, before.getOrderId()));
+    }
+
+    private void publish(Mutation mutation) {
+        int slot = (int) (mutation.getSequence() & mask);
+        while (true) {
+            Mutation current = ring.get(slot);
+            // A writer that stalled for a whole lap of the ring must not overwrite a newer entry
+            if (current != null && current.getSequence() > mutation.getSequence()) {
+                return;
+            }
+            if (ring.compareAndSet(slot, current, mutation)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the highest sequence number handed out so far.
+     */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return true if the mutation with this sequence number is still in the ring or not written yet.
+     */
+    public boolean isRetained(long seq) {
+        return seq > sequence.get() - capacity();
+    }
+
+    /**
+     * Reads the mutation with the given sequence number.
+     * @return the mutation, or null if it has not been published yet.
+     * @throws LogTruncatedException if the mutation was already overwritten.
+     */
+    public Mutation read(long seq) {
+        Mutation mutation = ring.get((int) (seq & mask));
+        if (mutation == null || mutation.getSequence() < seq) {
+            return null;
+        }
+        if (mutation.getSequence() > seq) {
+            throw new LogTruncatedException(seq);
+        }
+        return mutation;
+    }
+
+    /**
+     * Thrown when a reader asks for a mutation the ring no longer holds.
+     */
+    public static class LogTruncatedException extends RuntimeException {
+
+        public LogTruncatedException(long seq) {
+            super("Replication log no longer holds sequence " + seq, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Wire format of the leader/follower protocol. Every frame starts with a one byte type.
+ *
+ * Follower to leader, once per connection:
+ *   HELLO epoch lastAppliedSequence
+ * Leader to follower, first either a resume or a full snapshot:
+ *   RESUME epoch
+ *   SNAPSHOT_BEGIN epoch sequence, SNAPSHOT_TOMBSTONE orderId (repeated), SNAPSHOT_ORDER order (repeated), SNAPSHOT_END
+ * then the log, interleaved with periodic heartbeats:
+ *   UPSERT sequence order | DELETE sequence orderId | HEARTBEAT leaderSequence
+ */
+final class ReplicationProtocol {
+
+    static final byte HELLO = 1;
+    static final byte RESUME = 2;
+    static final byte SNAPSHOT_BEGIN = 3;
+    static final byte SNAPSHOT_ORDER = 4;
+    static final byte SNAPSHOT_END = 5;
+    static final byte UPSERT = 6;
+    static final byte DELETE = 7;
+    static final byte HEARTBEAT = 8;
+    static final byte SNAPSHOT_TOMBSTONE = 9;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeOrder(DataOutput out, Order order) throws IOException {
+        writeUuid(out, order.getOrderId());
+        writeNullableString(out, order.getCustomerName());
+        writeNullableString(out, order.getProductName());
+        out.writeInt(order.getQuantity());
+        out.writeDouble(order.getPrice());
+        out.writeByte(order.getStatus() == null ? -1 : order.getStatus().ordinal());
+        LocalDateTime dateCreated = order.getDateCreated();
+        out.writeBoolean(dateCreated != null);
+        if (dateCreated != null) {
+            out.writeLong(dateCreated.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(dateCreated.getNano());
+        }
+        out.writeLong(order.getVersion());
+    }
+
+    static Order readOrder(DataInput in) throws IOException {
+        Order order = new Order();
+        order.setOrderId(readUuid(in));
+        order.setCustomerName(readNullableString(in));
+        order.setProductName(readNullableString(in));
+        order.setQuantity(in.readInt());
+        order.setPrice(in.readDouble());
+        byte status = in.readByte();
+        order.setStatus(status < 0 ? null : STATUSES[status]);
+        if (in.readBoolean()) {
+            order.setDateCreated(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+        }
+        order.setVersion(in.readLong());
+        return order;
+    }
+
+    static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.mcb.ecommerce.order_management.repository;
+
+import com.mcb.ecommerce.order_management.model.Order;
+
+/**
+ * Callback invoked by {@link OrderRepository} after every successful write.
+ * Implementations run on the writing thread and must be fast and non-blocking.
+ */
+@FunctionalInterface
+public interface OrderChangeListener {
+
+    /**
+     * @param before the order before the write, or null if it was created.
+     * @param after the order after the write, or null if it was deleted.
+     */
+    void onChange(Order before, Order after);
+}
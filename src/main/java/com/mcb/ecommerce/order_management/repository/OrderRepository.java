@@ -1,38 +1,548 @@
 package com.mcb.ecommerce.order_management.repository;
 
 import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.profiling.OrderStoreEvent;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
 public class OrderRepository {
-    private final Map<UUID, Order> orders = new HashMap<>();
+    private final Map<UUID, Order> orders = new ConcurrentHashMap<>();
+
+    // Secondary indexes hold order ids. An id is added before the order becomes visible and removed
+    // after it is gone, so an index may briefly hold extra ids but never misses a stored order.
+    // Readers resolve ids against the primary map and re-check the predicate.
+    private final Map<OrderStatus, Set<UUID>> statusIndex = new EnumMap<>(OrderStatus.class);
+    // Per customer, the history of orders newest first. Entries are keyed by creation date and id,
+    // which never change for an order, so status updates leave the history untouched.
+    private final ConcurrentSkipListMap<String, NavigableSet<HistoryEntry>> customerIndex = new ConcurrentSkipListMap<>();
+
+    private final List<OrderChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Point-in-time capture for snapshot(): while a snapshot runs, the first write to each order
+    // records the order as it was before (ABSENT if it did not exist). Writers count themselves in
+    // per-epoch counters so a snapshot can wait out writes that started before the capture did.
+    private static final Order ABSENT = new Order();
+    private final Object snapshotLock = new Object();
+    private final LongAdder[] activeWriters = {new LongAdder(), new LongAdder()};
+    private volatile long writeEpoch;
+    private volatile Map<UUID, Order> beforeImages;
+
+    // Set while orders are restored from a snapshot file, see beginRestore()
+    private volatile Function<UUID, Order> restoreSource;
+    private volatile Set<UUID> deletedDuringRestore;
+
+    public OrderRepository() {
+        for (OrderStatus status : OrderStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Registers a listener notified after every create, update and delete.
+     */
+    public void addChangeListener(OrderChangeListener listener) {
+        listeners.add(listener);
+    }
 
     public Order save(Order order) {
-        orders.put(order.getOrderId(), order);
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        indexCustomer(order);
+        indexStatus(order.getOrderId(), order.getStatus());
+        Order previous = putOrder(order.getOrderId(), order);
+        if (previous != null && previous.getStatus() != order.getStatus()) {
+            unindexStatus(order.getOrderId(), previous.getStatus());
+        }
+        if (previous != null && !sameHistoryPosition(previous, order)) {
+            unindexCustomer(previous);
+        }
+        notifyListeners(previous, order);
+
+        commit(event, "save", 1);
         return order;
     }
 
+    /**
+     * Replaces the stored order only if it is still the expected one. Versioned orders are never
+     * mutated in place, so this is a compare-and-set on the entry and needs no other locking.
+     * The comparison is by identity, not by {@code equals}: expected must be the instance read from
+     * this repository, and an equal copy of it does not match.
+     * @param expected the order the caller read.
+     * @param updated the order to store instead.
+     * @return true if the order was replaced, false if it was concurrently changed or deleted.
+     */
+    public boolean compareAndSet(Order expected, Order updated) {
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        UUID orderId = expected.getOrderId();
+        boolean statusChanged = expected.getStatus() != updated.getStatus();
+        if (statusChanged) {
+            indexStatus(orderId, updated.getStatus());
+        }
+
+        boolean replaced = replaceOrder(orderId, expected, updated);
+        if (statusChanged) {
+            if (replaced) {
+                unindexStatus(orderId, expected.getStatus());
+            } else {
+                Order current = orders.get(orderId);
+                if (current == null || current.getStatus() != updated.getStatus()) {
+                    unindexStatus(orderId, updated.getStatus());
+                }
+            }
+        }
+        if (replaced) {
+            notifyListeners(expected, updated);
+        }
+
+        commit(event, "compareAndSet", replaced ? 1 : 0);
+        return replaced;
+    }
+
     public Optional<Order> findById(UUID orderId) {
-        return Optional.ofNullable(orders.get(orderId));
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        Order order = orders.get(orderId);
+        if (order == null && restoreSource != null) {
+            order = restoreOnRead(orderId);
+        }
+
+        commit(event, "findById", order == null ? 0 : 1);
+        return Optional.ofNullable(order);
     }
 
     public List<Order> findAll() {
-        return new ArrayList<>(orders.values());
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        List<Order> all = new ArrayList<>(orders.values());
+
+        commit(event, "findAll", all.size());
+        return all;
     }
 
     public void deleteById(UUID orderId) {
-        orders.remove(orderId);
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        Set<UUID> deleted = deletedDuringRestore;
+        if (deleted != null) {
+            // Keep the restore from bringing the order back
+            deleted.add(orderId);
+        }
+        Order removed = removeOrder(orderId);
+        if (removed != null) {
+            unindexStatus(orderId, removed.getStatus());
+            unindexCustomer(removed);
+            notifyListeners(removed, null);
+        }
+
+        commit(event, "deleteById", removed == null ? 0 : 1);
+    }
+
+    /**
+     * Takes a consistent point-in-time copy of all orders without blocking writers.
+     * Writes that start after the snapshot do are recorded with their before image, and the snapshot
+     * waits only for writes that were already running, so the copy reflects exactly the writes that
+     * started before it.
+     * @return the orders as of the start of the snapshot, sorted by order id.
+     */
+    public List<Order> snapshot() {
+        synchronized (snapshotLock) {
+            Map<UUID, Order> captured = new ConcurrentHashMap<>();
+            beforeImages = captured;
+            long epoch = writeEpoch;
+            writeEpoch = epoch + 1;
+            LongAdder earlierWriters = activeWriters[(int) (epoch & 1)];
+            while (earlierWriters.sum() != 0) {
+                Thread.onSpinWait();
+            }
+
+            try {
+                List<Order> copy = new ArrayList<>(orders.size() + 16);
+                for (Map.Entry<UUID, Order> entry : orders.entrySet()) {
+                    Order before = captured.get(entry.getKey());
+                    if (before == null) {
+                        copy.add(entry.getValue());
+                    } else if (before != ABSENT) {
+                        copy.add(before);
+                    }
+                }
+                // Orders deleted meanwhile; anything seen twice is the same instance both times
+                for (Order before : captured.values()) {
+                    if (before != ABSENT) {
+                        copy.add(before);
+                    }
+                }
+                copy.sort(Comparator.comparing(Order::getOrderId));
+
+                List<Order> unique = new ArrayList<>(copy.size());
+                for (Order order : copy) {
+                    if (unique.isEmpty() || !unique.get(unique.size() - 1).getOrderId().equals(order.getOrderId())) {
+                        unique.add(order);
+                    }
+                }
+                return unique;
+            } finally {
+                beforeImages = null;
+            }
+        }
+    }
+
+    /**
+     * Starts restoring orders from a snapshot. Until {@link #endRestore()}, a lookup of an id not in
+     * memory yet is answered from the source and the order is loaded on the spot, while the rest is
+     * loaded in the background through {@link #restore(Order)}.
+     * @param source looks an order up in the snapshot, returning null if it is not there.
+     */
+    public void beginRestore(Function<UUID, Order> source) {
+        deletedDuringRestore = ConcurrentHashMap.newKeySet();
+        restoreSource = source;
+    }
+
+    /**
+     * Loads one order from the snapshot, unless it was written or deleted since the restore began.
+     * @return true if the order was loaded.
+     */
+    public boolean restore(Order order) {
+        UUID orderId = order.getOrderId();
+        Set<UUID> deleted = deletedDuringRestore;
+        if (deleted != null && deleted.contains(orderId)) {
+            return false;
+        }
+        indexCustomer(order);
+        indexStatus(orderId, order.getStatus());
+        if (putOrderIfAbsent(orderId, order) != null) {
+            unindexRestored(order);
+            return false;
+        }
+        // A delete that slipped in between the check above and the insert wins
+        if (deleted != null && deleted.contains(orderId) && orders.remove(orderId, order)) {
+            unindexRestored(order);
+            return false;
+        }
+        notifyListeners(null, order);
+        return true;
+    }
+
+    public void endRestore() {
+        restoreSource = null;
+        deletedDuringRestore = null;
     }
 
     // Method to find orders by customer name
     public List<Order> findByCustomerName(String customerName) {
-        return orders.values().stream()
+        return streamByCustomerName(customerName)
                 .filter(order -> order.getCustomerName().equals(customerName))
                 .toList();
     }
 
-}
+    public int count() {
+        return orders.size();
+    }
+
+    /**
+     * @return a stream over all stored orders, without copying them into an intermediate list.
+     */
+    public Stream<Order> streamAll() {
+        return orders.values().stream();
+    }
+
+    public int countByStatus(OrderStatus status) {
+        return statusIndex.get(status).size();
+    }
+
+    /**
+     * @return the orders currently in the given status, looked up through the status index.
+     */
+    public Stream<Order> streamByStatus(OrderStatus status) {
+        return resolve(statusIndex.get(status).stream())
+                .filter(order -> order.getStatus() == status);
+    }
+
+    /**
+     * @return the number of orders of the customer, counted over that customer's history only.
+     */
+    public int countByCustomerName(String customerName) {
+        NavigableSet<HistoryEntry> history = customerIndex.get(customerKey(customerName));
+        return history == null ? 0 : history.size();
+    }
+
+    /**
+     * @return the orders whose customer name matches ignoring case, newest first, looked up through the customer index.
+     */
+    public Stream<Order> streamByCustomerName(String customerName) {
+        NavigableSet<HistoryEntry> history = customerIndex.get(customerKey(customerName));
+        return history == null ? Stream.empty() : resolve(history.stream().map(HistoryEntry::orderId));
+    }
+
+    /**
+     * Reads the order history of a customer from the per-customer index, without looking at other customers' orders.
+     * Each order is returned in its current version; orders created or deleted while the history is read may or
+     * may not be included.
+     * @param customerName compared ignoring case.
+     * @param since only orders created at or after this time, or null for all.
+     * @param limit the maximum number of orders to return.
+     * @return the orders, newest first. Orders without a creation date come last and are excluded when since is given.
+     */
+    public List<Order> findCustomerHistory(String customerName, LocalDateTime since, int limit) {
+        OrderStoreEvent event = new OrderStoreEvent();
+        event.begin();
+
+        List<Order> history = new ArrayList<>();
+        try (Stream<Order> found = streamCustomerHistory(customerName, since)) {
+            found.limit(limit).forEachOrdered(history::add);
+        }
+
+        commit(event, "findCustomerHistory", history.size());
+        return history;
+    }
 
+    /**
+     * Streams the order history of a customer from the per-customer index, reading each order only when the
+     * stream reaches it, with the same consistency as {@link #findCustomerHistory(String, LocalDateTime, int)}.
+     * @param customerName compared ignoring case.
+     * @param since only orders created at or after this time, or null for all.
+     * @return the orders, newest first. Orders without a creation date come last and are excluded when since is given.
+     */
+    public Stream<Order> streamCustomerHistory(String customerName, LocalDateTime since) {
+        NavigableSet<HistoryEntry> entries = customerIndex.get(customerKey(customerName));
+        if (entries == null) {
+            return Stream.empty();
+        }
+        Stream<HistoryEntry> history = entries.stream();
+        if (since != null) {
+            // Newest first, so the first entry before since ends the history
+            history = history.takeWhile(entry -> entry.dateCreated() != null && !entry.dateCreated().isBefore(since));
+        }
+        return resolve(history.map(HistoryEntry::orderId));
+    }
+
+    /**
+     * Counts orders of customers whose name starts with the prefix, giving up once the count reaches the cap.
+     * Lets a query planner compare the prefix range against other access paths without walking all of it.
+     */
+    public int countByCustomerNamePrefix(String prefix, int cap) {
+        int count = 0;
+        for (NavigableSet<HistoryEntry> history : prefixRange(prefix).values()) {
+            count += history.size();
+            if (count >= cap) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the orders whose customer name starts with the prefix ignoring case, as a range scan of the customer index.
+     */
+    public Stream<Order> streamByCustomerNamePrefix(String prefix) {
+        return resolve(prefixRange(prefix).values().stream()
+                .flatMap(history -> history.stream().map(HistoryEntry::orderId)));
+    }
+
+    private NavigableMap<String, NavigableSet<HistoryEntry>> prefixRange(String prefix) {
+        String from = customerKey(prefix);
+        // Every key starting with the prefix sorts below the prefix followed by the highest char
+        return customerIndex.subMap(from, true, from + Character.MAX_VALUE, false);
+    }
+
+    private Order restoreOnRead(UUID orderId) {
+        Function<UUID, Order> source = restoreSource;
+        Order stored = source == null ? null : source.apply(orderId);
+        if (stored != null) {
+            restore(stored);
+        }
+        return orders.get(orderId);
+    }
+
+    // Undo the index entries of a restored order that lost against a newer write
+    private void unindexRestored(Order order) {
+        Order current = orders.get(order.getOrderId());
+        if (current == null || current.getStatus() != order.getStatus()) {
+            unindexStatus(order.getOrderId(), order.getStatus());
+        }
+        if (current == null || !sameHistoryPosition(order, current)) {
+            unindexCustomer(order);
+        }
+    }
+
+    // The primitive writes below go through the before-image capture while a snapshot runs
+
+    private Order putOrder(UUID orderId, Order order) {
+        LongAdder writers = enterWrite();
+        try {
+            Map<UUID, Order> captured = beforeImages;
+            if (captured == null) {
+                return orders.put(orderId, order);
+            }
+            Order[] previous = new Order[1];
+            orders.compute(orderId, (key, current) -> {
+                captured.putIfAbsent(key, current == null ? ABSENT : current);
+                previous[0] = current;
+                return order;
+            });
+            return previous[0];
+        } finally {
+            writers.decrement();
+        }
+    }
+
+    private Order putOrderIfAbsent(UUID orderId, Order order) {
+        LongAdder writers = enterWrite();
+        try {
+            Map<UUID, Order> captured = beforeImages;
+            if (captured == null) {
+                return orders.putIfAbsent(orderId, order);
+            }
+            Order[] previous = new Order[1];
+            orders.compute(orderId, (key, current) -> {
+                if (current != null) {
+                    previous[0] = current;
+                    return current;
+                }
+                captured.putIfAbsent(key, ABSENT);
+                return order;
+            });
+            return previous[0];
+        } finally {
+            writers.decrement();
+        }
+    }
+
+    private boolean replaceOrder(UUID orderId, Order expected, Order updated) {
+        LongAdder writers = enterWrite();
+        try {
+            Map<UUID, Order> captured = beforeImages;
+            boolean[] replaced = new boolean[1];
+            // ConcurrentHashMap.replace would compare with Order.equals
+            orders.computeIfPresent(orderId, (key, current) -> {
+                if (current != expected) {
+                    return current;
+                }
+                if (captured != null) {
+                    captured.putIfAbsent(key, current);
+                }
+                replaced[0] = true;
+                return updated;
+            });
+            return replaced[0];
+        } finally {
+            writers.decrement();
+        }
+    }
+
+    private Order removeOrder(UUID orderId) {
+        LongAdder writers = enterWrite();
+        try {
+            Map<UUID, Order> captured = beforeImages;
+            if (captured == null) {
+                return orders.remove(orderId);
+            }
+            Order[] removed = new Order[1];
+            orders.computeIfPresent(orderId, (key, current) -> {
+                captured.putIfAbsent(key, current);
+                removed[0] = current;
+                return null;
+            });
+            return removed[0];
+        } finally {
+            writers.decrement();
+        }
+    }
+
+    // Read the epoch before the capture map: a writer that still sees no capture is then counted
+    // in the epoch the snapshot waits for
+    private LongAdder enterWrite() {
+        LongAdder writers = activeWriters[(int) (writeEpoch & 1)];
+        writers.increment();
+        return writers;
+    }
+
+    private static void commit(OrderStoreEvent event, String operation, int resultSize) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.store = "repository";
+            event.operation = operation;
+            event.resultSize = resultSize;
+            event.commit();
+        }
+    }
+
+    private void notifyListeners(Order before, Order after) {
+        for (OrderChangeListener listener : listeners) {
+            listener.onChange(before, after);
+        }
+    }
+
+    private Stream<Order> resolve(Stream<UUID> ids) {
+        return ids.map(orders::get).filter(Objects::nonNull);
+    }
+
+    private void indexCustomer(Order order) {
+        customerIndex.computeIfAbsent(customerKey(order.getCustomerName()),
+                key -> new ConcurrentSkipListSet<>(HistoryEntry.NEWEST_FIRST)).add(HistoryEntry.of(order));
+    }
+
+    private void unindexCustomer(Order order) {
+        NavigableSet<HistoryEntry> history = customerIndex.get(customerKey(order.getCustomerName()));
+        if (history != null) {
+            history.remove(HistoryEntry.of(order));
+        }
+    }
+
+    private void indexStatus(UUID orderId, OrderStatus status) {
+        if (status != null) {
+            statusIndex.get(status).add(orderId);
+        }
+    }
+
+    private void unindexStatus(UUID orderId, OrderStatus status) {
+        if (status != null) {
+            statusIndex.get(status).remove(orderId);
+        }
+    }
+
+    /**
+     * The case folding the customer index uses. Filters on customer names must compare these keys,
+     * not {@code equalsIgnoreCase}, or they disagree with the index for characters such as the dotted capital I.
+     * @return the index key of the customer name, "" for null.
+     */
+    public static String customerKey(String customerName) {
+        return customerName == null ? "" : customerName.toLowerCase(Locale.ROOT);
+    }
+
+    // True if both versions of an order sit at the same place in the same customer's history
+    private static boolean sameHistoryPosition(Order order, Order other) {
+        return HistoryEntry.of(order).equals(HistoryEntry.of(other))
+                && customerKey(order.getCustomerName()).equals(customerKey(other.getCustomerName()));
+    }
+
+    // Position of an order in its customer's history
+    private record HistoryEntry(LocalDateTime dateCreated, UUID orderId) {
+
+        static final Comparator<HistoryEntry> NEWEST_FIRST = Comparator
+                .comparing(HistoryEntry::dateCreated, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(HistoryEntry::orderId);
+
+        static HistoryEntry of(Order order) {
+            return new HistoryEntry(order.getDateCreated(), order.getOrderId());
+        }
+    }
+
+}
@@ -1,36 +1,61 @@
 package com.mcb.ecommerce.order_management.service;
 
+import com.mcb.ecommerce.order_management.cache.IdempotencyCache;
+import com.mcb.ecommerce.order_management.cache.QueryResultCache;
 import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
 import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
 import com.mcb.ecommerce.order_management.exception.OrderNotFoundException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
+import com.mcb.ecommerce.order_management.expiry.OrderExpiryScheduler;
 import com.mcb.ecommerce.order_management.model.Order;
 import com.mcb.ecommerce.order_management.model.OrderStatus;
 import com.mcb.ecommerce.order_management.model.OrderStatusFactory;
+import com.mcb.ecommerce.order_management.profiling.OrderOperationEvent;
 import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.query.OrderQueryEngine;
+import com.mcb.ecommerce.order_management.service.query.QueryPlan;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for handling the business logic related to Orders.
  * It provides methods to perform CRUD operations, search, and sorting of orders.
+ * Every operation is recorded as an {@link OrderOperationEvent} while Flight Recorder has it enabled.
  */
 @Service
 public class OrderService {
 
+    // Retries from the checkout tier arrive well within a day, keep keys for that long
+    private static final Duration IDEMPOTENCY_KEY_TTL = Duration.ofHours(24);
+    private static final int MAX_IDEMPOTENCY_KEYS = 100_000;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    // Dashboards poll a handful of listings, a small bound keeps their results warm
+    private static final int MAX_CACHED_QUERIES = 1_024;
+
     private final OrderRepository orderRepository;
-    private final PriorityQueue<Order> orderQueue;
+    private final IdempotencyCache<Order> createdOrders;
+    private final OrderQueryEngine queryEngine;
+    private final QueryResultCache queryResults;
+    private volatile OrderExpiryScheduler expiryScheduler;
 
     // Singleton instance
     private static volatile OrderService instance;
 
     private OrderService(OrderRepository orderRepository) {
         this.orderRepository = orderRepository;
-        this.orderQueue = new PriorityQueue<>(Comparator.comparing(Order::getDateCreated));
+        this.createdOrders = new IdempotencyCache<>(MAX_IDEMPOTENCY_KEYS, IDEMPOTENCY_KEY_TTL);
+        this.queryEngine = new OrderQueryEngine(orderRepository);
+        this.queryResults = new QueryResultCache(MAX_CACHED_QUERIES);
+        orderRepository.addChangeListener(queryResults);
     }
 
     /**
@@ -50,6 +75,13 @@ public class OrderService {
         return instance;
     }
 
+    /**
+     * Sets the scheduler that cancels orders left PENDING for too long, or null to disable expiry.
+     */
+    public void setExpiryScheduler(OrderExpiryScheduler expiryScheduler) {
+        this.expiryScheduler = expiryScheduler;
+    }
+
     /**
      * Creates a new order with the provided details.
      * @param orderRequest contains the details for creating the new order.
@@ -57,6 +89,9 @@ public class OrderService {
      * @throws IllegalArgumentException if quantity or price is less than or equal to zero.
      */
     public Order createOrder(OrderRequest orderRequest) {
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+
         Order order = new Order(orderRequest.getCustomerName(),
                 orderRequest.getProductName(),
                 orderRequest.getQuantity(),
@@ -64,44 +99,90 @@ public class OrderService {
         );
 
         orderRepository.save(order);
-        orderQueue.offer(order);
 
+        OrderExpiryScheduler scheduler = expiryScheduler;
+        if (scheduler != null) {
+            scheduler.register(order.getOrderId());
+        }
+
+        commit(event, "createOrder", null, 0, 1);
         return order;
     }
 
+    /**
+     * Creates a new order at most once per idempotency key and principal.
+     * A repeated key returns the order created by the first request instead of creating a duplicate.
+     * Keys are scoped to the principal, so clients that pick the same key do not see each other's orders.
+     * @param orderRequest contains the details for creating the new order.
+     * @param principal name of the authenticated caller the key belongs to.
+     * @param idempotencyKey client supplied key identifying the request, or null to always create.
+     * @return the newly created Order, or the Order previously created by the principal with the same key.
+     * @throws IllegalArgumentException if the key is invalid or was used with a different request.
+     */
+    public Order createOrder(OrderRequest orderRequest, String principal, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createOrder(orderRequest);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be between 1 and "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // Basic auth user names cannot contain ':', so the scoped key is unambiguous
+        String scopedKey = (principal == null ? "" : principal) + ':' + idempotencyKey;
+        return createdOrders.execute(scopedKey, orderRequest, () -> createOrder(orderRequest));
+    }
+
     /**
      * Retrieves all orders, optionally filtering by status and sorting by creation date.
+     * Results are cached per filter until an order matching the filter is written.
      * @param customerName the name of the customer
      * @param status filter by order status (e.g., Pending, Completed, Cancelled).
      * @param sort specifies the sorting order, "asc" for ascending or "desc" for descending.
-     * @return a list of orders matching the criteria.
+     * @return an unmodifiable list of orders matching the criteria.
      */
     public List<Order> getOrders(String customerName, String status, String sort) {
-        List<Order> orders = orderRepository.findAll();
-
-        if (status != null) {
-            OrderStatus orderStatus = OrderStatusFactory.createOrderStatus(status);
-            orders = orders.stream()
-                    .filter(order -> order.getStatus().equals(orderStatus))
-                    .toList();
-        }
+        OrderStatus statusFilter = status == null ? null : OrderStatusFactory.createOrderStatus(status);
 
-        if (customerName != null) {
-            orders = orders.stream()
-                    .filter(order -> order.getCustomerName().equalsIgnoreCase(customerName))
-                    .toList();
-        }
+        return queryResults.get(QueryResultCache.Key.orders(customerName, statusFilter, sort),
+                () -> search("getOrders", ordersRequest(customerName, status, sort)));
+    }
 
-        // Sorting logic
-        if ("desc".equalsIgnoreCase(sort)) {
-            orders.sort(Comparator.comparing(Order::getDateCreated).reversed());
-        } else if ("asc".equalsIgnoreCase(sort)) {
-            orders.sort(Comparator.comparing(Order::getDateCreated));
+    /**
+     * Streams the orders {@link #getOrders(String, String, String)} returns. A sorted listing needs every
+     * match before the first one, so it is served from the query cache; an unsorted one bypasses the cache
+     * and reads orders from the index only as the stream is consumed. Close the stream when done.
+     * @param customerName the name of the customer
+     * @param status filter by order status (e.g., Pending, Completed, Cancelled).
+     * @param sort specifies the sorting order, "asc" for ascending or "desc" for descending.
+     * @return a stream of the orders matching the criteria.
+     */
+    public Stream<Order> streamOrders(String customerName, String status, String sort) {
+        if ("asc".equalsIgnoreCase(sort) || "desc".equalsIgnoreCase(sort)) {
+            return getOrders(customerName, status, sort).stream();
         }
+        return stream("getOrders", ordersRequest(customerName, status, sort));
+    }
 
-        return orders;
+    /**
+     * Searches orders by any combination of criteria, with sorting on any field and an optional limit.
+     * @param searchRequest the search criteria.
+     * @return a list of orders matching all criteria.
+     * @throws IllegalArgumentException if the criteria are inconsistent or reference unknown values.
+     */
+    public List<Order> searchOrders(OrderSearchRequest searchRequest) {
+        return search("searchOrders", searchRequest);
     }
 
+    /**
+     * Streams the orders {@link #searchOrders(OrderSearchRequest)} returns. Without a sort, orders are read
+     * from the chosen index only as the stream is consumed. Close the stream when done.
+     * @param searchRequest the search criteria.
+     * @return a stream of the orders matching all criteria.
+     * @throws IllegalArgumentException if the criteria are inconsistent or reference unknown values.
+     */
+    public Stream<Order> streamSearchResults(OrderSearchRequest searchRequest) {
+        return stream("searchOrders", searchRequest);
+    }
 
     /**
      * Retrieves a specific order by its ID.
@@ -110,8 +191,14 @@ public class OrderService {
      * @throws OrderNotFoundException if no order is found with the provided ID.
      */
     public Order getOrderById(UUID orderId) {
-        return orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        commit(event, "getOrderById", null, 1, 1);
+        return order;
     }
 
     /**
@@ -122,17 +209,49 @@ public class OrderService {
      * @throws OrderNotFoundException if no order is found with the provided ID.
      */
     public Order updateOrder(UUID orderId, OrderUpdateRequest updateRequest) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        return updateOrder(orderId, updateRequest, null);
+    }
 
-        OrderStatus newStatus = OrderStatusFactory.createOrderStatus(updateRequest.getStatus().toString());
-        order.setStatus(newStatus);
+    /**
+     * Updates the status of an existing order with optimistic concurrency control.
+     * The new version is compare-and-set into the repository; if another writer got there first
+     * the update is retried against the fresh order, unless the caller asked for a specific version.
+     * @param orderId the unique identifier of the order.
+     * @param updateRequest contains the new status for the order.
+     * @param expectedVersion the version the caller last saw, or null to update whatever is current.
+     * @return the updated order.
+     * @throws OrderNotFoundException if no order is found with the provided ID.
+     * @throws OrderVersionMismatchException if the order is no longer at the expected version.
+     * @throws com.mcb.ecommerce.order_management.exception.IllegalStatusTransitionException if the order is in a terminal status.
+     */
+    public Order updateOrder(UUID orderId, OrderUpdateRequest updateRequest, Long expectedVersion) {
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+        int attempts = 0;
 
-        orderRepository.save(order);
-        orderQueue.remove(order);
-        orderQueue.offer(order);
+        while (true) {
+            attempts++;
+            Order current = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw new OrderVersionMismatchException(orderId, expectedVersion, current.getVersion());
+            }
 
-        return order;
+            OrderStatus newStatus = OrderStatusFactory.transition(current.getStatus(), updateRequest.getStatus().toString());
+            Order updated = current.withStatus(newStatus);
+
+            if (orderRepository.compareAndSet(current, updated)) {
+
+                OrderExpiryScheduler scheduler = expiryScheduler;
+                if (scheduler != null && newStatus != OrderStatus.PENDING) {
+                    scheduler.unregister(orderId);
+                }
+                // Rows scanned counts the reads, so retries under contention show up
+                commit(event, "updateOrder", null, attempts, 1);
+                return updated;
+            }
+            // Another writer replaced the order first, re-read it and try again
+        }
     }
 
     /**
@@ -141,21 +260,169 @@ public class OrderService {
      * @throws OrderNotFoundException if no order is found with the provided ID.
      */
     public void deleteOrder(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+
+        orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         orderRepository.deleteById(orderId);
-        orderQueue.remove(order);
+
+        OrderExpiryScheduler scheduler = expiryScheduler;
+        if (scheduler != null) {
+            scheduler.unregister(orderId);
+        }
+
+        commit(event, "deleteOrder", null, 1, 0);
     }
 
     /**
      * Retrieves the order history for a specific customer.
      * @param customerName the name of the customer whose order history is being retrieved.
-     * @return a list of orders belonging to the specified customer.
+     * @return an unmodifiable list of orders belonging to the specified customer, newest first.
      */
     public List<Order> getOrderHistory(String customerName) {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getCustomerName().equalsIgnoreCase(customerName))
-                .toList();
+        return getOrderHistory(customerName, null, null);
+    }
+
+    /**
+     * Retrieves the order history for a specific customer from the history the repository maintains
+     * per customer, so the cost depends on that customer's orders only.
+     * @param customerName the name of the customer, compared ignoring case.
+     * @param since only orders created at or after this time, or null for all.
+     * @param limit the maximum number of orders, or null for all.
+     * @return an unmodifiable list of orders belonging to the specified customer, newest first.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public List<Order> getOrderHistory(String customerName, LocalDateTime since, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+
+        List<Order> history = orderRepository.findCustomerHistory(customerName, since,
+                limit == null ? Integer.MAX_VALUE : limit);
+
+        commit(event, "getOrderHistory", QueryPlan.AccessPath.CUSTOMER_INDEX.name(), history.size(), history.size());
+        return Collections.unmodifiableList(history);
+    }
+
+    /**
+     * Streams the orders {@link #getOrderHistory(String, LocalDateTime, Integer)} returns, reading each one
+     * from the customer's history only as the stream is consumed. Close the stream when done.
+     * @param customerName the name of the customer, compared ignoring case.
+     * @param since only orders created at or after this time, or null for all.
+     * @param limit the maximum number of orders, or null for all.
+     * @return a stream of orders belonging to the specified customer, newest first.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public Stream<Order> streamOrderHistory(String customerName, LocalDateTime since, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        Stream<Order> history = orderRepository.streamCustomerHistory(customerName, since);
+        if (limit != null) {
+            history = history.limit(limit);
+        }
+
+        OrderOperationEvent event = new OrderOperationEvent();
+        if (!event.isEnabled()) {
+            return history;
+        }
+        event.begin();
+        LongAdder returned = new LongAdder();
+        return history.peek(order -> returned.increment())
+                .onClose(() -> commit(event, "getOrderHistory", QueryPlan.AccessPath.CUSTOMER_INDEX.name(),
+                        returned.sum(), returned.intValue()));
+    }
+
+    /**
+     * Cancels the given orders if they are still PENDING. Used by the expiry scheduler, which
+     * passes every order whose timeout elapsed; orders that were completed, cancelled or deleted
+     * in the meantime are skipped.
+     * @param orderIds the orders whose pending timeout elapsed.
+     * @return the number of orders that were cancelled.
+     */
+    public int cancelExpiredOrders(Collection<UUID> orderIds) {
+        OrderOperationEvent event = new OrderOperationEvent();
+        event.begin();
+
+        int cancelled = 0;
+        for (UUID orderId : orderIds) {
+            while (true) {
+                Order current = orderRepository.findById(orderId).orElse(null);
+                if (current == null || current.getStatus() != OrderStatus.PENDING) {
+                    break;
+                }
+                Order updated = current.withStatus(OrderStatus.CANCELLED);
+                if (orderRepository.compareAndSet(current, updated)) {
+                    cancelled++;
+                    break;
+                }
+                // Updated concurrently, re-check whether it is still pending
+            }
+        }
+
+        commit(event, "cancelExpiredOrders", null, orderIds.size(), cancelled);
+        return cancelled;
+    }
+
+    // Runs a search through the query engine, counting scanned rows only while the event is recorded
+    private List<Order> search(String operation, OrderSearchRequest request) {
+        OrderOperationEvent event = new OrderOperationEvent();
+        if (!event.isEnabled()) {
+            return queryEngine.search(request);
+        }
+
+        event.begin();
+        QueryPlan plan = queryEngine.plan(request);
+        LongAdder rowsScanned = new LongAdder();
+        List<Order> result = queryEngine.execute(plan, rowsScanned);
+
+        commit(event, operation, plan.getAccessPath().name(), rowsScanned.sum(), result.size());
+        return result;
+    }
+
+    // Streams a search through the query engine, recording the event once the stream is closed
+    private Stream<Order> stream(String operation, OrderSearchRequest request) {
+        QueryPlan plan = queryEngine.plan(request);
+        OrderOperationEvent event = new OrderOperationEvent();
+        if (!event.isEnabled()) {
+            return queryEngine.stream(plan, null);
+        }
+
+        event.begin();
+        LongAdder rowsScanned = new LongAdder();
+        LongAdder returned = new LongAdder();
+        return queryEngine.stream(plan, rowsScanned)
+                .peek(order -> returned.increment())
+                .onClose(() -> commit(event, operation, plan.getAccessPath().name(), rowsScanned.sum(), returned.intValue()));
+    }
+
+    private static OrderSearchRequest ordersRequest(String customerName, String status, String sort) {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setCustomerName(customerName);
+        request.setStatus(status);
+
+        // Sorting logic
+        if ("desc".equalsIgnoreCase(sort)) {
+            request.setSort("dateCreated:desc");
+        } else if ("asc".equalsIgnoreCase(sort)) {
+            request.setSort("dateCreated:asc");
+        }
+        return request;
+    }
+
+    private static void commit(OrderOperationEvent event, String operation, String accessPath,
+                               long rowsScanned, int resultSize) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.accessPath = accessPath;
+            event.rowsScanned = rowsScanned;
+            event.resultSize = resultSize;
+            event.commit();
+        }
     }
 }
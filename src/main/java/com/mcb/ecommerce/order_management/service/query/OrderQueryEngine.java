@@ -0,0 +1,279 @@
+package com.mcb.ecommerce.order_management.service.query;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.model.OrderStatusFactory;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.query.QueryPlan.AccessPath;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Executes compound order searches in a single pass over the repository.
+ * The planner picks the most selective available index (customer name, customer name prefix or
+ * status) based on index sizes, all criteria are fused into one predicate, large candidate sets
+ * are filtered with a parallel stream, and sort plus limit keeps only the top K orders in a heap.
+ */
+public class OrderQueryEngine {
+
+    // Below this many candidates the fork/join overhead costs more than it saves
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    private static final Comparator<Order> TIE_BREAKER =
+            Comparator.comparing(Order::getOrderId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final OrderRepository orderRepository;
+
+    public OrderQueryEngine(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Plans and executes a search.
+     * @param request the search criteria.
+     * @return the matching orders, sorted and limited as requested.
+     * @throws IllegalArgumentException if the criteria are inconsistent or name an unknown status or sort field.
+     */
+    public List<Order> search(OrderSearchRequest request) {
+        return execute(plan(request));
+    }
+
+    /**
+     * Builds the execution plan for a search without running it.
+     * @param request the search criteria.
+     * @return the plan.
+     */
+    public QueryPlan plan(OrderSearchRequest request) {
+        OrderStatus status = request.getStatus() == null ? null : OrderStatusFactory.createOrderStatus(request.getStatus());
+        Predicate<Order> predicate = fusePredicates(request, status);
+        Comparator<Order> comparator = parseSort(request.getSort());
+
+        AccessPath accessPath = AccessPath.FULL_SCAN;
+        long estimate = orderRepository.count();
+        Supplier<Stream<Order>> candidates = orderRepository::streamAll;
+
+        String customerName = request.getCustomerName();
+        String prefix = request.getCustomerNamePrefix();
+        if (customerName != null) {
+            int rows = orderRepository.countByCustomerName(customerName);
+            if (isCheaper(rows, estimate, accessPath)) {
+                accessPath = AccessPath.CUSTOMER_INDEX;
+                estimate = rows;
+                candidates = () -> orderRepository.streamByCustomerName(customerName);
+            }
+        } else if (prefix != null && !prefix.isEmpty()) {
+            int rows = orderRepository.countByCustomerNamePrefix(prefix, (int) Math.min(Integer.MAX_VALUE, estimate + 1));
+            if (isCheaper(rows, estimate, accessPath)) {
+                accessPath = AccessPath.CUSTOMER_PREFIX_INDEX;
+                estimate = rows;
+                candidates = () -> orderRepository.streamByCustomerNamePrefix(prefix);
+            }
+        }
+        if (status != null) {
+            int rows = orderRepository.countByStatus(status);
+            if (isCheaper(rows, estimate, accessPath)) {
+                accessPath = AccessPath.STATUS_INDEX;
+                estimate = rows;
+                candidates = () -> orderRepository.streamByStatus(status);
+            }
+        }
+
+        return new QueryPlan(accessPath, estimate, candidates, predicate, comparator, request.getLimit());
+    }
+
+    /**
+     * Runs a plan: one filtering pass over the candidates, then a top-K heap or a sort.
+     * @param plan the plan to execute.
+     * @return the matching orders.
+     */
+    public List<Order> execute(QueryPlan plan) {
+        return execute(plan, null);
+    }
+
+    /**
+     * Runs a plan and counts the candidate rows it scanned.
+     * @param plan the plan to execute.
+     * @param rowsScanned incremented once per candidate row, or null to skip counting.
+     * @return the matching orders.
+     */
+    public List<Order> execute(QueryPlan plan, LongAdder rowsScanned) {
+        Stream<Order> candidates = plan.candidates();
+        if (plan.getEstimatedRows() >= PARALLEL_THRESHOLD) {
+            candidates = candidates.parallel();
+        }
+        if (rowsScanned != null) {
+            candidates = candidates.peek(order -> rowsScanned.increment());
+        }
+        Stream<Order> matches = candidates.filter(plan.getPredicate());
+
+        Comparator<Order> comparator = plan.getComparator();
+        Integer limit = plan.getLimit();
+        if (comparator != null && limit != null) {
+            return matches.collect(topK(limit, comparator));
+        }
+        if (limit != null) {
+            return matches.unordered().limit(limit).collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        List<Order> result = matches.collect(Collectors.toCollection(ArrayList::new));
+        if (comparator != null) {
+            result.sort(comparator);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a plan lazily where the plan allows it. Without a sort, candidates are read and filtered
+     * sequentially only as the stream is consumed, stopping at the limit. A sort needs every match
+     * before the first one, so a sorted plan is executed and its result streamed.
+     * @param plan the plan to execute.
+     * @param rowsScanned incremented once per candidate row read, or null to skip counting.
+     * @return the matching orders.
+     */
+    public Stream<Order> stream(QueryPlan plan, LongAdder rowsScanned) {
+        if (plan.getComparator() != null) {
+            return execute(plan, rowsScanned).stream();
+        }
+        Stream<Order> candidates = plan.candidates();
+        if (rowsScanned != null) {
+            candidates = candidates.peek(order -> rowsScanned.increment());
+        }
+        Stream<Order> matches = candidates.filter(plan.getPredicate());
+        return plan.getLimit() == null ? matches : matches.limit(plan.getLimit());
+    }
+
+    // Prefer an index over the full scan when both are estimated to touch the same number of rows
+    private static boolean isCheaper(long rows, long currentEstimate, AccessPath currentPath) {
+        return rows < currentEstimate || (rows == currentEstimate && currentPath == AccessPath.FULL_SCAN);
+    }
+
+    private static Predicate<Order> fusePredicates(OrderSearchRequest request, OrderStatus status) {
+        List<Predicate<Order>> predicates = new ArrayList<>();
+
+        if (status != null) {
+            predicates.add(order -> order.getStatus() == status);
+        }
+        // Customer names are folded exactly like the customer index, so both access paths agree
+        if (request.getCustomerName() != null) {
+            String customerKey = OrderRepository.customerKey(request.getCustomerName());
+            predicates.add(order -> customerKey.equals(OrderRepository.customerKey(order.getCustomerName())));
+        }
+        if (request.getCustomerNamePrefix() != null) {
+            String prefixKey = OrderRepository.customerKey(request.getCustomerNamePrefix());
+            predicates.add(order -> order.getCustomerName() != null
+                    && OrderRepository.customerKey(order.getCustomerName()).startsWith(prefixKey));
+        }
+        if (request.getProductName() != null) {
+            String productName = request.getProductName();
+            predicates.add(order -> productName.equalsIgnoreCase(order.getProductName()));
+        }
+
+        Double minPrice = request.getMinPrice();
+        Double maxPrice = request.getMaxPrice();
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price must not exceed maximum price");
+        }
+        if (minPrice != null) {
+            predicates.add(order -> order.getPrice() >= minPrice);
+        }
+        if (maxPrice != null) {
+            predicates.add(order -> order.getPrice() <= maxPrice);
+        }
+
+        Integer minQuantity = request.getMinQuantity();
+        Integer maxQuantity = request.getMaxQuantity();
+        if (minQuantity != null && maxQuantity != null && minQuantity > maxQuantity) {
+            throw new IllegalArgumentException("Minimum quantity must not exceed maximum quantity");
+        }
+        if (minQuantity != null) {
+            predicates.add(order -> order.getQuantity() >= minQuantity);
+        }
+        if (maxQuantity != null) {
+            predicates.add(order -> order.getQuantity() <= maxQuantity);
+        }
+
+        LocalDateTime createdFrom = request.getCreatedFrom();
+        LocalDateTime createdTo = request.getCreatedTo();
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must not be after createdTo");
+        }
+        if (createdFrom != null) {
+            predicates.add(order -> order.getDateCreated() != null && !order.getDateCreated().isBefore(createdFrom));
+        }
+        if (createdTo != null) {
+            predicates.add(order -> order.getDateCreated() != null && !order.getDateCreated().isAfter(createdTo));
+        }
+
+        return predicates.stream().reduce(Predicate::and).orElse(order -> true);
+    }
+
+    /**
+     * Parses a sort expression such as {@code price:desc,dateCreated} into a comparator.
+     * @return the comparator, or null if the expression is blank.
+     */
+    static Comparator<Order> parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        Comparator<Order> comparator = null;
+        for (String term : sort.split(",")) {
+            String[] parts = term.trim().split(":");
+            if (parts.length > 2 || parts[0].isEmpty()) {
+                throw new IllegalArgumentException("Invalid sort expression: " + sort);
+            }
+            Comparator<Order> fieldComparator = SortField.fromFieldName(parts[0]).comparator();
+            if (parts.length == 2) {
+                if ("desc".equalsIgnoreCase(parts[1])) {
+                    fieldComparator = fieldComparator.reversed();
+                } else if (!"asc".equalsIgnoreCase(parts[1])) {
+                    throw new IllegalArgumentException("Sort direction must be asc or desc: " + term);
+                }
+            }
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        }
+        // Stable results for equal keys, which top-K selection needs to be deterministic
+        return comparator.thenComparing(TIE_BREAKER);
+    }
+
+    /**
+     * Collects the first {@code k} orders by the comparator using a bounded max-heap,
+     * O(n log k) instead of sorting all matches.
+     */
+    static Collector<Order, ?, List<Order>> topK(int k, Comparator<Order> comparator) {
+        Comparator<Order> worstFirst = comparator.reversed();
+        return Collector.<Order, PriorityQueue<Order>, List<Order>>of(
+                () -> new PriorityQueue<>(k + 1, worstFirst),
+                (heap, order) -> offerBounded(heap, order, k, comparator),
+                (left, right) -> {
+                    for (Order order : right) {
+                        offerBounded(left, order, k, comparator);
+                    }
+                    return left;
+                },
+                heap -> {
+                    List<Order> result = new ArrayList<>(heap);
+                    result.sort(comparator);
+                    return result;
+                });
+    }
+
+    private static void offerBounded(PriorityQueue<Order> heap, Order order, int k, Comparator<Order> comparator) {
+        if (heap.size() < k) {
+            heap.offer(order);
+        } else if (comparator.compare(order, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(order);
+        }
+    }
+}
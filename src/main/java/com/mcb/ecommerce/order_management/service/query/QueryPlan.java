@@ -0,0 +1,63 @@
+package com.mcb.ecommerce.order_management.service.query;
+
+import com.mcb.ecommerce.order_management.model.Order;
+
+import java.util.Comparator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * How {@link OrderQueryEngine} executes a search: where candidates come from, the single fused
+ * predicate applied to them, and the optional ordering and limit.
+ */
+public class QueryPlan {
+
+    /**
+     * Where candidate orders are read from.
+     */
+    public enum AccessPath {
+        FULL_SCAN, STATUS_INDEX, CUSTOMER_INDEX, CUSTOMER_PREFIX_INDEX
+    }
+
+    private final AccessPath accessPath;
+    private final long estimatedRows;
+    private final Supplier<Stream<Order>> candidates;
+    private final Predicate<Order> predicate;
+    private final Comparator<Order> comparator;
+    private final Integer limit;
+
+    QueryPlan(AccessPath accessPath, long estimatedRows, Supplier<Stream<Order>> candidates,
+              Predicate<Order> predicate, Comparator<Order> comparator, Integer limit) {
+        this.accessPath = accessPath;
+        this.estimatedRows = estimatedRows;
+        this.candidates = candidates;
+        this.predicate = predicate;
+        this.comparator = comparator;
+        this.limit = limit;
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    Stream<Order> candidates() {
+        return candidates.get();
+    }
+
+    public Predicate<Order> getPredicate() {
+        return predicate;
+    }
+
+    public Comparator<Order> getComparator() {
+        return comparator;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+}
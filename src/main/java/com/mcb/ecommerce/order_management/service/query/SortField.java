@@ -0,0 +1,51 @@
+package com.mcb.ecommerce.order_management.service.query;
+
+import com.mcb.ecommerce.order_management.model.Order;
+
+import java.util.Comparator;
+
+/**
+ * Order fields that search results can be sorted on.
+ */
+public enum SortField {
+    DATE_CREATED("dateCreated", Comparator.comparing(Order::getDateCreated, nullsFirst())),
+    PRICE("price", Comparator.comparingDouble(Order::getPrice)),
+    QUANTITY("quantity", Comparator.comparingInt(Order::getQuantity)),
+    CUSTOMER_NAME("customerName", Comparator.comparing(Order::getCustomerName, nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    PRODUCT_NAME("productName", Comparator.comparing(Order::getProductName, nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    STATUS("status", Comparator.comparing(Order::getStatus, nullsFirst()));
+
+    private final String fieldName;
+    private final Comparator<Order> comparator;
+
+    SortField(String fieldName, Comparator<Order> comparator) {
+        this.fieldName = fieldName;
+        this.comparator = comparator;
+    }
+
+    public Comparator<Order> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @param fieldName the field name as used in the sort expression, case insensitive.
+     * @return the matching sort field.
+     * @throws IllegalArgumentException if the field cannot be sorted on.
+     */
+    public static SortField fromFieldName(String fieldName) {
+        for (SortField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(fieldName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort on unknown field: " + fieldName);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<T> nullsFirst() {
+        return Comparator.nullsFirst(Comparator.naturalOrder());
+    }
+
+    private static <T> Comparator<T> nullsFirst(Comparator<T> comparator) {
+        return Comparator.nullsFirst(comparator);
+    }
+}
@@ -0,0 +1,316 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of a snapshot file written by {@link SnapshotWriter}. The file is memory-mapped,
+ * so opening it costs nothing up front and every lookup decodes only the records it returns.
+ *
+ * Thread-safe: all reads are absolute and the mapping is never modified. The mapping stays valid
+ * until it is garbage collected, {@link #close()} only stops further use of this instance.
+ */
+public class OrderSnapshot implements Closeable {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long createdAtMillis;
+    private final int recordsOffset;
+    private final int stringsOffset;
+    private final int customerIndexOffset;
+    private final int statusIndexOffset;
+    private final int dateIndexOffset;
+    private volatile boolean closed;
+
+    private OrderSnapshot(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < SnapshotFormat.HEADER_SIZE || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IllegalArgumentException("Not an order snapshot: " + file);
+        }
+        if (buffer.getInt(4) != SnapshotFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + buffer.getInt(4) + ": " + file);
+        }
+        this.count = buffer.getInt(SnapshotFormat.COUNT);
+        this.createdAtMillis = buffer.getLong(SnapshotFormat.CREATED_AT);
+        this.recordsOffset = (int) buffer.getLong(SnapshotFormat.RECORDS_OFFSET);
+        this.stringsOffset = (int) buffer.getLong(SnapshotFormat.STRINGS_OFFSET);
+        this.customerIndexOffset = (int) buffer.getLong(SnapshotFormat.CUSTOMER_INDEX_OFFSET);
+        this.statusIndexOffset = (int) buffer.getLong(SnapshotFormat.STATUS_INDEX_OFFSET);
+        this.dateIndexOffset = (int) buffer.getLong(SnapshotFormat.DATE_INDEX_OFFSET);
+    }
+
+    /**
+     * Maps a snapshot file.
+     * @param file the snapshot file.
+     * @return the snapshot.
+     * @throws IllegalArgumentException if the file is not a snapshot of a supported version, or exceeds 2 GB.
+     */
+    public static OrderSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Snapshot exceeds 2 GB: " + file);
+            }
+            return new OrderSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of orders in the snapshot.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return when the snapshot was taken, in epoch milliseconds.
+     */
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * @param index position of the order in id order, from 0 to {@link #size()} - 1.
+     * @return a new order decoded from the record.
+     */
+    public Order get(int index) {
+        checkOpen();
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int record = recordsOffset + index * SnapshotFormat.RECORD_SIZE;
+        Order order = new Order();
+        order.setOrderId(new UUID(buffer.getLong(record + SnapshotFormat.ID_MSB),
+                buffer.getLong(record + SnapshotFormat.ID_LSB)));
+        order.setVersion(buffer.getLong(record + SnapshotFormat.VERSION_FIELD));
+        order.setPrice(buffer.getDouble(record + SnapshotFormat.PRICE));
+        order.setQuantity(buffer.getInt(record + SnapshotFormat.QUANTITY));
+        order.setCustomerName(string(buffer.getInt(record + SnapshotFormat.CUSTOMER_NAME)));
+        order.setProductName(string(buffer.getInt(record + SnapshotFormat.PRODUCT_NAME)));
+        byte status = buffer.get(record + SnapshotFormat.STATUS);
+        order.setStatus(status == SnapshotFormat.NO_STATUS ? null : STATUSES[status]);
+        if (buffer.get(record + SnapshotFormat.HAS_DATE) != 0) {
+            order.setDateCreated(dateCreated(record));
+        }
+        return order;
+    }
+
+    /**
+     * Looks an order up by binary search over the records.
+     * @return the order, or null if the snapshot does not contain it.
+     */
+    public Order findById(UUID orderId) {
+        checkOpen();
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = recordsOffset + mid * SnapshotFormat.RECORD_SIZE;
+            int cmp = new UUID(buffer.getLong(record + SnapshotFormat.ID_MSB),
+                    buffer.getLong(record + SnapshotFormat.ID_LSB)).compareTo(orderId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return get(mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param customerName compared case-insensitively.
+     */
+    public List<Order> findByCustomerName(String customerName) {
+        checkOpen();
+        String key = customerName == null ? "" : customerName.toLowerCase(Locale.ROOT);
+        int entry = firstCustomerEntryAtLeast(key);
+        if (entry < customerEntries() && customerKey(entry).equals(key)) {
+            return customerPostings(entry);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * @param prefix compared case-insensitively.
+     * @return the matching orders, grouped by customer name in name order.
+     */
+    public List<Order> findByCustomerNamePrefix(String prefix) {
+        checkOpen();
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<Order> result = new ArrayList<>();
+        for (int entry = firstCustomerEntryAtLeast(key); entry < customerEntries(); entry++) {
+            if (!customerKey(entry).startsWith(key)) {
+                break;
+            }
+            result.addAll(customerPostings(entry));
+        }
+        return result;
+    }
+
+    public List<Order> findByStatus(OrderStatus status) {
+        checkOpen();
+        int entry = statusIndexOffset + 4 + status.ordinal() * SnapshotFormat.STATUS_ENTRY_SIZE;
+        if (status.ordinal() >= buffer.getInt(statusIndexOffset)) {
+            return new ArrayList<>();
+        }
+        int postings = statusIndexOffset + 4 + buffer.getInt(statusIndexOffset) * SnapshotFormat.STATUS_ENTRY_SIZE;
+        return postings(postings, buffer.getInt(entry), buffer.getInt(entry + 4));
+    }
+
+    /**
+     * @return the number of orders per status, read from the index without decoding any record.
+     */
+    public Map<OrderStatus, Integer> countByStatus() {
+        checkOpen();
+        Map<OrderStatus, Integer> counts = new EnumMap<>(OrderStatus.class);
+        int statuses = Math.min(buffer.getInt(statusIndexOffset), STATUSES.length);
+        for (int i = 0; i < statuses; i++) {
+            counts.put(STATUSES[i], buffer.getInt(statusIndexOffset + 4 + i * SnapshotFormat.STATUS_ENTRY_SIZE + 4));
+        }
+        return counts;
+    }
+
+    /**
+     * @param from inclusive lower bound, or null for no bound.
+     * @param to inclusive upper bound, or null for no bound.
+     * @return the orders created in the range, oldest first.
+     */
+    public List<Order> findByCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        checkOpen();
+        int dated = buffer.getInt(dateIndexOffset);
+        int postings = dateIndexOffset + 4;
+        int start = 0;
+        if (from != null) {
+            // First order created at or after from
+            int low = 0;
+            int high = dated;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dateCreated(recordAt(postings, mid)).isBefore(from)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            start = low;
+        }
+        int end = dated;
+        if (to != null) {
+            // First order created after to
+            int low = start;
+            int high = dated;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dateCreated(recordAt(postings, mid)).isAfter(to)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            end = low;
+        }
+        return postings(postings, start, Math.max(0, end - start));
+    }
+
+    /**
+     * @return all orders in id order, decoded lazily.
+     */
+    public Stream<Order> stream() {
+        checkOpen();
+        return IntStream.range(0, count).mapToObj(this::get);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Snapshot is closed: " + file);
+        }
+    }
+
+    private LocalDateTime dateCreated(int record) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(record + SnapshotFormat.CREATED_SECONDS),
+                buffer.getInt(record + SnapshotFormat.CREATED_NANOS), ZoneOffset.UTC);
+    }
+
+    private int recordAt(int postings, int position) {
+        return recordsOffset + buffer.getInt(postings + position * 4) * SnapshotFormat.RECORD_SIZE;
+    }
+
+    private List<Order> postings(int postings, int start, int length) {
+        List<Order> orders = new ArrayList<>(length);
+        for (int i = start; i < start + length; i++) {
+            orders.add(get(buffer.getInt(postings + i * 4)));
+        }
+        return orders;
+    }
+
+    private int customerEntries() {
+        return buffer.getInt(customerIndexOffset);
+    }
+
+    private String customerKey(int entry) {
+        return string(buffer.getInt(customerIndexOffset + 4 + entry * SnapshotFormat.CUSTOMER_ENTRY_SIZE));
+    }
+
+    private List<Order> customerPostings(int entry) {
+        int position = customerIndexOffset + 4 + entry * SnapshotFormat.CUSTOMER_ENTRY_SIZE;
+        int postings = customerIndexOffset + 4 + customerEntries() * SnapshotFormat.CUSTOMER_ENTRY_SIZE;
+        return postings(postings, buffer.getInt(position + 4), buffer.getInt(position + 8));
+    }
+
+    // Lower bound over the sorted customer keys
+    private int firstCustomerEntryAtLeast(String key) {
+        int low = 0;
+        int high = customerEntries();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (customerKey(mid).compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String string(int offset) {
+        if (offset == SnapshotFormat.NO_STRING) {
+            return null;
+        }
+        int position = stringsOffset + offset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+/**
+ * Layout of an order snapshot file. All numbers are big-endian, all offsets are from the start of
+ * the file except string offsets, which are from the start of the string heap.
+ *
+ * - header ({@value #HEADER_SIZE} bytes): magic, version, order count, creation time and the
+ *   offsets of the sections below,
+ * - records: one fixed size record per order, sorted by order id so the id lookup is a binary search,
+ * - string heap: customer and product names as length-prefixed UTF-8, each distinct name once,
+ * - customer index: lowercased customer names in sorted order, each with a range of postings,
+ *   followed by the postings (record numbers),
+ * - status index: a range of postings per status ordinal, followed by the postings,
+ * - date index: record numbers of the orders with a creation date, sorted by that date.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4D43424F; // "MCBO"
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+    static final int COUNT = 8;
+    static final int CREATED_AT = 16;
+    static final int RECORDS_OFFSET = 24;
+    static final int STRINGS_OFFSET = 32;
+    static final int CUSTOMER_INDEX_OFFSET = 40;
+    static final int STATUS_INDEX_OFFSET = 48;
+    static final int DATE_INDEX_OFFSET = 56;
+
+    // Record fields, relative to the start of the record
+    static final int RECORD_SIZE = 64;
+    static final int ID_MSB = 0;
+    static final int ID_LSB = 8;
+    static final int VERSION_FIELD = 16;
+    static final int PRICE = 24;
+    static final int CREATED_SECONDS = 32;
+    static final int CREATED_NANOS = 40;
+    static final int QUANTITY = 44;
+    static final int CUSTOMER_NAME = 48;
+    static final int PRODUCT_NAME = 52;
+    static final int STATUS = 56;
+    static final int HAS_DATE = 57;
+
+    // Customer index entry: name offset, first posting, posting count
+    static final int CUSTOMER_ENTRY_SIZE = 12;
+    // Status index entry: first posting, posting count
+    static final int STATUS_ENTRY_SIZE = 8;
+
+    static final int NO_STRING = -1;
+    static final byte NO_STATUS = -1;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,183 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.expiry.OrderExpiryScheduler;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the order store from a snapshot file on startup and writes snapshots on demand or on shutdown.
+ *
+ * Loading does not hold up startup: the file is mapped, the repository answers lookups by id from
+ * it right away, and a background thread copies the orders into memory. Lists and searches cover
+ * the orders loaded so far until the restore completes.
+ */
+public class SnapshotManager implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotManager.class);
+
+    private final OrderRepository orderRepository;
+    private final Path file;
+    private final boolean writeOnShutdown;
+    private final OrderExpiryScheduler expiryScheduler;
+
+    private final AtomicLong restoredOrders = new AtomicLong();
+    private volatile Thread restoreThread;
+    private volatile boolean restoreFailed;
+    private volatile Map<String, Object> lastWrite;
+
+    public SnapshotManager(OrderRepository orderRepository, Path file, boolean writeOnShutdown) {
+        this(orderRepository, file, writeOnShutdown, null);
+    }
+
+    /**
+     * @param expiryScheduler receives the restored PENDING orders, their timeouts count from their
+     *                        creation date; null if orders do not expire.
+     */
+    public SnapshotManager(OrderRepository orderRepository, Path file, boolean writeOnShutdown,
+                           OrderExpiryScheduler expiryScheduler) {
+        this.orderRepository = orderRepository;
+        this.file = file;
+        this.writeOnShutdown = writeOnShutdown;
+        this.expiryScheduler = expiryScheduler;
+    }
+
+    /**
+     * Starts restoring the orders of the snapshot file, if there is one.
+     */
+    public void start() throws IOException {
+        if (!Files.exists(file)) {
+            log.info("No order snapshot at {}, starting empty", file);
+            return;
+        }
+        OrderSnapshot snapshot = OrderSnapshot.open(file);
+        orderRepository.beginRestore(snapshot::findById);
+        Thread thread = new Thread(() -> restore(snapshot), "order-snapshot-restore");
+        thread.setDaemon(true);
+        restoreThread = thread;
+        thread.start();
+        log.info("Restoring {} orders from snapshot {}", snapshot.size(), file);
+    }
+
+    /**
+     * Writes a point-in-time snapshot of the order store, replacing the file.
+     * @return the number of orders, file size and duration of the write.
+     * @throws IllegalStateException if a restore is still running or failed, the snapshot would miss orders.
+     */
+    public synchronized Map<String, Object> write() {
+        if (isRestoring()) {
+            throw new IllegalStateException("Snapshot restore is still running");
+        }
+        if (restoreFailed) {
+            throw new IllegalStateException("Snapshot restore failed, not overwriting " + file);
+        }
+        long started = System.currentTimeMillis();
+        List<Order> orders = orderRepository.snapshot();
+        try {
+            long bytes = SnapshotWriter.write(orders, file, started);
+            Map<String, Object> result = new HashMap<>();
+            result.put("file", file.toAbsolutePath().toString());
+            result.put("orders", orders.size());
+            result.put("bytes", bytes);
+            result.put("createdAt", Instant.ofEpochMilli(started));
+            result.put("durationMillis", System.currentTimeMillis() - started);
+            lastWrite = result;
+            log.info("Wrote snapshot of {} orders to {}", orders.size(), file);
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write snapshot to " + file, ex);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("file", file.toAbsolutePath().toString());
+        status.put("exists", Files.exists(file));
+        status.put("restoring", isRestoring());
+        status.put("restoredOrders", restoredOrders.get());
+        status.put("restoreFailed", restoreFailed);
+        status.put("lastWrite", lastWrite);
+        return status;
+    }
+
+    public boolean isRestoring() {
+        Thread thread = restoreThread;
+        return thread != null && thread.isAlive();
+    }
+
+    /**
+     * Waits for the restore to complete.
+     * @return true if no restore is running anymore.
+     */
+    public boolean awaitRestore(long timeoutMillis) throws InterruptedException {
+        Thread thread = restoreThread;
+        if (thread != null) {
+            thread.join(timeoutMillis);
+        }
+        return !isRestoring();
+    }
+
+    @Override
+    public void close() {
+        Thread thread = restoreThread;
+        if (!writeOnShutdown) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+            return;
+        }
+        try {
+            // The snapshot must not lose the orders not restored yet
+            if (thread != null) {
+                thread.join();
+            }
+            write();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted before writing the shutdown snapshot to {}", file);
+        } catch (RuntimeException ex) {
+            log.warn("Could not write the shutdown snapshot to {}", file, ex);
+        }
+    }
+
+    private void restore(OrderSnapshot snapshot) {
+        long started = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    restoreFailed = true;
+                    log.info("Snapshot restore interrupted after {} orders", restoredOrders.get());
+                    return;
+                }
+                Order order = snapshot.get(i);
+                if (orderRepository.restore(order)) {
+                    restoredOrders.incrementAndGet();
+                    if (expiryScheduler != null && order.getStatus() == OrderStatus.PENDING) {
+                        expiryScheduler.register(order.getOrderId(), order.getDateCreated());
+                    }
+                }
+            }
+            log.info("Restored {} orders from snapshot {} in {} ms", restoredOrders.get(), file,
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            restoreFailed = true;
+            log.error("Snapshot restore from {} failed", file, ex);
+        } finally {
+            // Not closed: a lookup may still be reading from it, the mapping goes away with the last reference
+            orderRepository.endRestore();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command line queries against a snapshot file, without starting the application:
+ *
+ *   java -cp target/classes com.mcb.ecommerce.order_management.snapshot.SnapshotQueryTool orders.snap info
+ *
+ * Orders are printed one per line, tab separated: id, customer, product, quantity, price, status,
+ * creation date and version.
+ */
+public final class SnapshotQueryTool {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: SnapshotQueryTool <snapshot file> <command> [arguments]",
+            "  info                       order count and creation time",
+            "  get <order id>             a single order",
+            "  customer <name>            orders of a customer, case-insensitive",
+            "  prefix <name prefix>       orders of customers whose name starts with the prefix",
+            "  status <status>            orders with the status",
+            "  created <from> [<to>]      orders created in the range, ISO date-times, '-' for no bound",
+            "  count-by-status            number of orders per status",
+            "  dump                       all orders");
+
+    private SnapshotQueryTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int exitCode = run(args, System.out, System.err);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Runs one command.
+     * @return the process exit code: 0 on success, 1 if an order was not found, 2 on bad arguments.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) throws IOException {
+        if (args.length < 2) {
+            err.println(USAGE);
+            return 2;
+        }
+        try (OrderSnapshot snapshot = OrderSnapshot.open(Path.of(args[0]))) {
+            String command = args[1];
+            switch (command) {
+                case "info" -> {
+                    out.println("orders\t" + snapshot.size());
+                    out.println("createdAt\t" + Instant.ofEpochMilli(snapshot.getCreatedAtMillis()));
+                }
+                case "get" -> {
+                    Order order = snapshot.findById(UUID.fromString(argument(args, 2)));
+                    if (order == null) {
+                        err.println("Order not found");
+                        return 1;
+                    }
+                    print(out, order);
+                }
+                case "customer" -> print(out, snapshot.findByCustomerName(argument(args, 2)));
+                case "prefix" -> print(out, snapshot.findByCustomerNamePrefix(argument(args, 2)));
+                case "status" -> print(out, snapshot.findByStatus(
+                        OrderStatus.valueOf(argument(args, 2).toUpperCase(Locale.ROOT))));
+                case "created" -> print(out, snapshot.findByCreatedBetween(
+                        dateTime(argument(args, 2)), args.length > 3 ? dateTime(args[3]) : null));
+                case "count-by-status" -> {
+                    for (Map.Entry<OrderStatus, Integer> entry : snapshot.countByStatus().entrySet()) {
+                        out.println(entry.getKey() + "\t" + entry.getValue());
+                    }
+                }
+                case "dump" -> snapshot.stream().forEach(order -> print(out, order));
+                default -> {
+                    err.println("Unknown command: " + command);
+                    err.println(USAGE);
+                    return 2;
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            err.println(ex.getMessage());
+            return 2;
+        }
+        return 0;
+    }
+
+    private static String argument(String[] args, int index) {
+        if (args.length <= index) {
+            throw new IllegalArgumentException("Missing argument for " + args[1]);
+        }
+        return args[index];
+    }
+
+    private static LocalDateTime dateTime(String value) {
+        return "-".equals(value) ? null : LocalDateTime.parse(value);
+    }
+
+    private static void print(PrintStream out, List<Order> orders) {
+        for (Order order : orders) {
+            print(out, order);
+        }
+    }
+
+    private static void print(PrintStream out, Order order) {
+        out.println(order.getOrderId() + "\t" + order.getCustomerName() + "\t" + order.getProductName()
+                + "\t" + order.getQuantity() + "\t" + order.getPrice() + "\t" + order.getStatus()
+                + "\t" + order.getDateCreated() + "\t" + order.getVersion());
+    }
+}
@@ -0,0 +1,215 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes orders to a snapshot file in the {@link SnapshotFormat} layout.
+ * The file is written next to the target, forced to disk and then moved into place, so readers
+ * only ever see a complete snapshot.
+ */
+public final class SnapshotWriter {
+
+    private static final byte[] RECORD_PADDING = new byte[SnapshotFormat.RECORD_SIZE - SnapshotFormat.HAS_DATE - 1];
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * @param orders the orders to write, sorted by order id, as returned by {@code OrderRepository.snapshot()}.
+     * @param file the snapshot file, replaced if it exists.
+     * @param createdAtMillis the point in time the orders were taken at.
+     * @return the size of the file in bytes.
+     * @throws IllegalArgumentException if the orders are not sorted by id or the file would exceed 2 GB.
+     */
+    public static long write(List<Order> orders, Path file, long createdAtMillis) throws IOException {
+        int count = orders.size();
+        for (int i = 1; i < count; i++) {
+            if (orders.get(i - 1).getOrderId().compareTo(orders.get(i).getOrderId()) >= 0) {
+                throw new IllegalArgumentException("Orders must be sorted by id without duplicates");
+            }
+        }
+
+        // Lay the strings out first, the records point into the heap
+        StringHeap strings = new StringHeap();
+        int[] customerNames = new int[count];
+        int[] productNames = new int[count];
+        TreeMap<String, List<Integer>> byCustomer = new TreeMap<>();
+        List<List<Integer>> byStatus = new ArrayList<>();
+        for (int i = 0; i < OrderStatus.values().length; i++) {
+            byStatus.add(new ArrayList<>());
+        }
+        List<Integer> dated = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = orders.get(i);
+            customerNames[i] = strings.add(order.getCustomerName());
+            productNames[i] = strings.add(order.getProductName());
+            // Same key as the repository's customer index
+            String customerKey = order.getCustomerName() == null ? "" : order.getCustomerName().toLowerCase(Locale.ROOT);
+            byCustomer.computeIfAbsent(customerKey, key -> new ArrayList<>()).add(i);
+            if (order.getStatus() != null) {
+                byStatus.get(order.getStatus().ordinal()).add(i);
+            }
+            if (order.getDateCreated() != null) {
+                dated.add(i);
+            }
+        }
+        int[] customerKeys = new int[byCustomer.size()];
+        int keyIndex = 0;
+        for (String customerKey : byCustomer.keySet()) {
+            customerKeys[keyIndex++] = strings.add(customerKey);
+        }
+        dated.sort(Comparator.comparing((Integer i) -> orders.get(i).getDateCreated()));
+
+        long recordsOffset = SnapshotFormat.HEADER_SIZE;
+        long stringsOffset = recordsOffset + (long) count * SnapshotFormat.RECORD_SIZE;
+        long customerIndexOffset = stringsOffset + strings.size();
+        long statusIndexOffset = customerIndexOffset + 4
+                + (long) byCustomer.size() * SnapshotFormat.CUSTOMER_ENTRY_SIZE + 4L * count;
+        long statusPostings = byStatus.stream().mapToLong(List::size).sum();
+        long dateIndexOffset = statusIndexOffset + 4
+                + (long) byStatus.size() * SnapshotFormat.STATUS_ENTRY_SIZE + 4 * statusPostings;
+        long fileSize = dateIndexOffset + 4 + 4L * dated.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot of " + count + " orders exceeds 2 GB");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+
+            out.writeInt(SnapshotFormat.MAGIC);
+            out.writeInt(SnapshotFormat.VERSION);
+            out.writeInt(count);
+            out.writeInt(0);
+            out.writeLong(createdAtMillis);
+            out.writeLong(recordsOffset);
+            out.writeLong(stringsOffset);
+            out.writeLong(customerIndexOffset);
+            out.writeLong(statusIndexOffset);
+            out.writeLong(dateIndexOffset);
+
+            for (int i = 0; i < count; i++) {
+                writeRecord(out, orders.get(i), customerNames[i], productNames[i]);
+            }
+            strings.writeTo(out);
+
+            out.writeInt(byCustomer.size());
+            int start = 0;
+            keyIndex = 0;
+            for (List<Integer> postings : byCustomer.values()) {
+                out.writeInt(customerKeys[keyIndex++]);
+                out.writeInt(start);
+                out.writeInt(postings.size());
+                start += postings.size();
+            }
+            for (List<Integer> postings : byCustomer.values()) {
+                writePostings(out, postings);
+            }
+
+            out.writeInt(byStatus.size());
+            start = 0;
+            for (List<Integer> postings : byStatus) {
+                out.writeInt(start);
+                out.writeInt(postings.size());
+                start += postings.size();
+            }
+            for (List<Integer> postings : byStatus) {
+                writePostings(out, postings);
+            }
+
+            out.writeInt(dated.size());
+            writePostings(out, dated);
+
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return fileSize;
+    }
+
+    private static void writeRecord(DataOutputStream out, Order order, int customerName, int productName)
+            throws IOException {
+        LocalDateTime dateCreated = order.getDateCreated();
+        out.writeLong(order.getOrderId().getMostSignificantBits());
+        out.writeLong(order.getOrderId().getLeastSignificantBits());
+        out.writeLong(order.getVersion());
+        out.writeDouble(order.getPrice());
+        out.writeLong(dateCreated == null ? 0 : dateCreated.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateCreated == null ? 0 : dateCreated.getNano());
+        out.writeInt(order.getQuantity());
+        out.writeInt(customerName);
+        out.writeInt(productName);
+        out.writeByte(order.getStatus() == null ? SnapshotFormat.NO_STATUS : order.getStatus().ordinal());
+        out.writeByte(dateCreated == null ? 0 : 1);
+        out.write(RECORD_PADDING);
+    }
+
+    private static void writePostings(DataOutputStream out, List<Integer> postings) throws IOException {
+        for (int posting : postings) {
+            out.writeInt(posting);
+        }
+    }
+
+    // Length-prefixed UTF-8 strings, each distinct value stored once
+    private static final class StringHeap {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int add(String value) {
+            if (value == null) {
+                return SnapshotFormat.NO_STRING;
+            }
+            Integer existing = offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int offset = bytes.size();
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            byte[] length = new byte[4];
+            length[0] = (byte) (encoded.length >>> 24);
+            length[1] = (byte) (encoded.length >>> 16);
+            length[2] = (byte) (encoded.length >>> 8);
+            length[3] = (byte) encoded.length;
+            bytes.write(length, 0, 4);
+            bytes.write(encoded, 0, encoded.length);
+            offsets.put(value, offset);
+            return offset;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
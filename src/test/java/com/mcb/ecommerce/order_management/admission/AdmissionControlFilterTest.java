@@ -0,0 +1,92 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void doFilter_ShouldRejectOncePrincipalExhaustsItsBucket() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(0.001, 2, 8, idleMonitor());
+
+        assertEquals(200, get(filter, "/api/v1/orders/1", new MockFilterChain()).getStatus());
+        assertEquals(200, get(filter, "/api/v1/orders/2", new MockFilterChain()).getStatus());
+        MockHttpServletResponse rejected = get(filter, "/api/v1/orders/3", new MockFilterChain());
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    void doFilter_ShouldLimitConcurrentListQueries() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1_000, 1_000, 1, idleMonitor());
+        AtomicInteger nestedStatus = new AtomicInteger();
+
+        // The second list query arrives while the first one still holds the only permit
+        FilterChain slowListQuery = (request, response) ->
+                nestedStatus.set(get(filter, "/api/v1/orders/search", new MockFilterChain()).getStatus());
+        assertEquals(200, get(filter, "/api/v1/orders", slowListQuery).getStatus());
+        assertEquals(429, nestedStatus.get());
+
+        // Lookups by id are not list queries, and the permit is back afterwards
+        assertEquals(200, get(filter, "/api/v1/orders/1", new MockFilterChain()).getStatus());
+        assertEquals(200, get(filter, "/api/v1/orders", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldShedOnlyAFractionWhenLatencyIsHigh() throws Exception {
+        // One closed window with a p99 twice the threshold
+        long start = System.nanoTime() - 2_000 * MILLI;
+        LatencyMonitor monitor = new LatencyMonitor(100, 1_000, start);
+        for (int i = 0; i < 100; i++) {
+            monitor.record(200 * MILLI, start);
+        }
+        monitor.rotateIfElapsed(System.nanoTime());
+        double shedFraction = monitor.getShedFraction();
+        assertTrue(shedFraction > 0.0 && shedFraction < 1.0);
+
+        AdmissionControlFilter filter = new AdmissionControlFilter(1_000_000, 1_000_000, 8, monitor);
+        int requests = 2_000;
+        int shed = 0;
+        for (int i = 0; i < requests; i++) {
+            if (get(filter, "/api/v1/orders/" + i, new MockFilterChain()).getStatus() == 429) {
+                shed++;
+            }
+        }
+
+        double observed = (double) shed / requests;
+        assertEquals(shedFraction, observed, 0.1);
+    }
+
+    @Test
+    void doFilter_ShouldIgnoreOtherPaths() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(0.001, 1, 1, idleMonitor());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get(filter, "/api/v1/admin/snapshots", new MockFilterChain()).getStatus());
+        }
+    }
+
+    private static LatencyMonitor idleMonitor() {
+        return new LatencyMonitor(500, 60_000, System.nanoTime());
+    }
+
+    private static MockHttpServletResponse get(AdmissionControlFilter filter, String uri, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyMonitorTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void rotateIfElapsed_ShouldFlagOverloadWhenP99ExceedsThreshold() {
+        LatencyMonitor monitor = new LatencyMonitor(100, 1_000, 0L);
+
+        for (int i = 0; i < 100; i++) {
+            monitor.record(i < 95 ? 5 * MILLI : 400 * MILLI, 10 * MILLI);
+        }
+        assertFalse(monitor.isOverloaded(), "window has not elapsed yet");
+
+        monitor.rotateIfElapsed(1_000 * MILLI);
+
+        assertTrue(monitor.isOverloaded());
+        assertTrue(monitor.getLastP99Micros() >= 400_000L);
+    }
+
+    @Test
+    void rotateIfElapsed_ShouldRecoverWhenLatencyDrops() {
+        LatencyMonitor monitor = new LatencyMonitor(100, 1_000, 0L);
+        for (int i = 0; i < 100; i++) {
+            monitor.record(400 * MILLI, 0L);
+        }
+        monitor.rotateIfElapsed(1_000 * MILLI);
+        assertTrue(monitor.isOverloaded());
+
+        double shedding = monitor.getShedFraction();
+
+        // Load comes back one step per healthy window, not all at once
+        for (int window = 2; monitor.isOverloaded(); window++) {
+            assertTrue(window < 20, "shedding never stopped");
+            for (int i = 0; i < 100; i++) {
+                monitor.record(2 * MILLI, (window - 1) * 1_000 * MILLI + 500 * MILLI);
+            }
+            monitor.rotateIfElapsed(window * 1_000 * MILLI);
+            assertTrue(monitor.getShedFraction() < shedding);
+            assertTrue(monitor.getShedFraction() >= shedding - LatencyMonitor.RECOVERY_STEP - 1e-9);
+            shedding = monitor.getShedFraction();
+        }
+        assertEquals(0.0, monitor.getShedFraction());
+    }
+
+    @Test
+    void nextShedFraction_ShouldGrowWithOvershootAndNeverShedEverything() {
+        double slightly = LatencyMonitor.nextShedFraction(0.0, 0.1);
+        double far = LatencyMonitor.nextShedFraction(0.0, 3.0);
+
+        assertTrue(slightly > 0.0);
+        assertTrue(far > slightly);
+        assertTrue(far < 1.0, "a single window must not shed every request");
+
+        double shed = 0.0;
+        for (int i = 0; i < 100; i++) {
+            shed = LatencyMonitor.nextShedFraction(shed, 10.0);
+        }
+        assertEquals(LatencyMonitor.MAX_SHED_FRACTION, shed, 1e-9);
+        assertFalse(new LatencyMonitor(100, 1_000, 0L).shouldShed(0.0));
+    }
+
+    @Test
+    void rotateIfElapsed_ShouldIgnoreWindowsWithTooFewSamples() {
+        LatencyMonitor monitor = new LatencyMonitor(100, 1_000, 0L);
+        monitor.record(5_000 * MILLI, 0L);
+
+        monitor.rotateIfElapsed(1_000 * MILLI);
+
+        assertFalse(monitor.isOverloaded());
+    }
+
+    @Test
+    void bucketUpperBound_ShouldCoverEveryValueInItsBucket() {
+        for (long micros = 0; micros < 100_000; micros++) {
+            int bucket = LatencyMonitor.bucketFor(micros);
+            assertTrue(LatencyMonitor.bucketUpperBound(bucket) >= micros);
+            if (bucket > 0) {
+                assertTrue(LatencyMonitor.bucketUpperBound(bucket - 1) < micros);
+            }
+        }
+    }
+}
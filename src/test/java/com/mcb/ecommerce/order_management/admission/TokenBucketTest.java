@@ -0,0 +1,40 @@
+package com.mcb.ecommerce.order_management.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_ShouldAdmitBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = 42L;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, bucket.tryAcquire(now), "request " + i + " should be admitted");
+        }
+        long wait = bucket.tryAcquire(now);
+
+        assertTrue(wait > 0);
+        assertTrue(wait <= SECOND / 10);
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        long now = 0L;
+
+        assertEquals(0L, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now + SECOND / 20) > 0);
+        assertEquals(0L, bucket.tryAcquire(now + SECOND / 10));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
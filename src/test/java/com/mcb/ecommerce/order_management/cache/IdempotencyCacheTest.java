@@ -0,0 +1,103 @@
+package com.mcb.ecommerce.order_management.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final IdempotencyCache<String> cache = new IdempotencyCache<>(2, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void execute_ShouldRunActionOncePerKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = cache.execute("k1", "request", () -> "result-" + calls.incrementAndGet());
+        String second = cache.execute("k1", "request", () -> "result-" + calls.incrementAndGet());
+
+        assertEquals("result-1", first);
+        assertEquals("result-1", second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ShouldRunAgainAfterTtl() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.execute("k1", "request", () -> "result-" + calls.incrementAndGet());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        String refreshed = cache.execute("k1", "request", () -> "result-" + calls.incrementAndGet());
+
+        assertEquals("result-2", refreshed);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReusedWithDifferentRequest() {
+        cache.execute("k1", "request", () -> "result");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.execute("k1", "other request", () -> "result"));
+    }
+
+    @Test
+    void execute_ShouldReleaseKeyWhenActionFails() {
+        assertThrows(IllegalStateException.class, () -> cache.execute("k1", "request", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("result", cache.execute("k1", "request", () -> "result"));
+    }
+
+    @Test
+    void execute_ShouldEvictOldestEntriesBeyondCapacity() {
+        cache.execute("k1", "request", () -> "a");
+        cache.execute("k2", "request", () -> "b");
+        cache.execute("k3", "request", () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("again", cache.execute("k1", "request", () -> "again"));
+    }
+
+    @Test
+    void execute_ShouldShareResultBetweenConcurrentCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.execute("k1", "request", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "result-" + calls.incrementAndGet();
+            }));
+            started.await();
+            Future<String> second = executor.submit(() -> cache.execute("k1", "request", () -> "result-" + calls.incrementAndGet()));
+            release.countDown();
+
+            assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("result-1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
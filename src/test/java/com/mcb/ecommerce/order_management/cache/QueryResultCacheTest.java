@@ -0,0 +1,201 @@
+package com.mcb.ecommerce.order_management.cache;
+
+import com.mcb.ecommerce.order_management.cache.QueryResultCache.Key;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+
+    private final QueryResultCache cache = new QueryResultCache(16);
+
+    @Test
+    void get_ShouldRunQueryOncePerNormalizedKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get(Key.orders("Alice", OrderStatus.PENDING, "DESC"), () -> query(calls));
+        cache.get(Key.orders("ALICE", OrderStatus.PENDING, "desc"), () -> query(calls));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void get_ShouldComputeConcurrentMissesOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> cache.get(Key.orders(null, OrderStatus.PENDING, "desc"), () -> {
+                    await(release);
+                    return query(calls);
+                }));
+            }
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void onChange_ShouldEvictOnlyMatchingEntries() {
+        Key alicePending = Key.orders("alice", OrderStatus.PENDING, null);
+        Key allPending = Key.orders(null, OrderStatus.PENDING, "desc");
+        Key aliceOrders = Key.orders("Alice", null, null);
+        Key bobOrders = Key.orders("Bob", null, null);
+        Key allCompleted = Key.orders(null, OrderStatus.COMPLETED, "asc");
+        for (Key key : List.of(alicePending, allPending, aliceOrders, bobOrders, allCompleted)) {
+            cache.get(key, List::of);
+        }
+
+        cache.onChange(null, new Order("ALICE", "Laptop", 1, 1500.00));
+
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getInvalidations());
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(bobOrders, () -> query(calls));
+        cache.get(allCompleted, () -> query(calls));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void onChange_ShouldEvictEntriesMatchingStatusBeforeAndAfter() {
+        Key pending = Key.orders(null, OrderStatus.PENDING, null);
+        Key completed = Key.orders(null, OrderStatus.COMPLETED, null);
+        Key cancelled = Key.orders(null, OrderStatus.CANCELLED, null);
+        for (Key key : List.of(pending, completed, cancelled)) {
+            cache.get(key, List::of);
+        }
+
+        Order before = new Order("Bob", "Mouse", 1, 25.00);
+        cache.onChange(before, before.withStatus(OrderStatus.COMPLETED));
+
+        assertEquals(1, cache.size());
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(cancelled, () -> query(calls));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void onChange_ShouldEvictEntriesOfTheCustomerBeforeAndAfter() {
+        Key aliceOrders = Key.orders("alice", null, null);
+        Key bobPending = Key.orders("BOB", OrderStatus.PENDING, null);
+        Key bobCompleted = Key.orders("bob", OrderStatus.COMPLETED, null);
+        Key carolOrders = Key.orders("Carol", null, null);
+        for (Key key : List.of(aliceOrders, bobPending, bobCompleted, carolOrders)) {
+            cache.get(key, List::of);
+        }
+
+        Order before = new Order("Alice", "Mouse", 1, 25.00);
+        Order after = new Order("Bob", "Mouse", 1, 25.00);
+        cache.onChange(before, after);
+
+        assertEquals(2, cache.size());
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(bobCompleted, () -> query(calls));
+        cache.get(carolOrders, () -> query(calls));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void get_ShouldEvictOldestEntryFirst() {
+        for (int i = 0; i <= 16; i++) {
+            cache.get(Key.orders("Customer " + i, null, null), List::of);
+        }
+
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(Key.orders("Customer 1", null, null), () -> query(calls));
+        assertEquals(0, calls.get());
+        cache.get(Key.orders("Customer 0", null, null), () -> query(calls));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheFailedQuery() {
+        Key key = Key.orders("Alice", null, null);
+        assertThrows(IllegalStateException.class, () -> cache.get(key, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(key, () -> query(calls));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_ShouldStayWithinBound() {
+        for (int i = 0; i < 100; i++) {
+            cache.get(Key.orders("Customer " + i, null, null), List::of);
+        }
+
+        assertEquals(16, cache.size());
+    }
+
+    @Test
+    void onChange_ShouldLeaveNoEntryUnreachableUnderConcurrentWrites() throws Exception {
+        String[] customers = {"Alice", "Bob", "Carol", "Dave"};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String customer = customers[(thread + i) % customers.length];
+                        OrderStatus status = OrderStatus.values()[i % OrderStatus.values().length];
+                        if (i % 3 == 0) {
+                            cache.onChange(null, new Order(customer, "Mouse", 1, 25.00).withStatus(status));
+                        } else {
+                            cache.get(Key.orders(i % 2 == 0 ? customer : null, status, null), List::of);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every cached entry is still reachable from its group, so one write per customer and status clears them
+        for (String customer : customers) {
+            for (OrderStatus status : OrderStatus.values()) {
+                cache.onChange(null, new Order(customer, "Mouse", 1, 25.00).withStatus(status));
+            }
+        }
+        assertEquals(0, cache.size());
+    }
+
+    private static List<Order> query(AtomicInteger calls) {
+        calls.incrementAndGet();
+        return List.of(new Order("Alice", "Laptop", 1, 1500.00));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.mcb.ecommerce.order_management.controller;
 
 import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
 import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.exception.OrderNotFoundException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
 import com.mcb.ecommerce.order_management.model.Order;
 import com.mcb.ecommerce.order_management.model.OrderStatus;
 import com.mcb.ecommerce.order_management.service.OrderService;
@@ -14,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.lang.reflect.Field;
+import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -35,6 +38,7 @@ class OrderControllerTest {
     private OrderUpdateRequest updateRequest;
     private UUID orderId;
     private static final String CUSTOMER_NAME = "ABC XYZ";
+    private static final Principal ADMIN = () -> "admin";
 
     @BeforeEach
     void setUp() throws NoSuchFieldException, IllegalAccessException {
@@ -64,13 +68,24 @@ class OrderControllerTest {
 
     @Test
     void createOrder_ShouldReturnCreatedOrder() {
-        when(orderService.createOrder(validOrderRequest)).thenReturn(order);
+        when(orderService.createOrder(validOrderRequest, "admin", null)).thenReturn(order);
 
-        ResponseEntity<Order> response = orderController.createOrder(validOrderRequest);
+        ResponseEntity<Order> response = orderController.createOrder(validOrderRequest, null, ADMIN);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(order, response.getBody());
-        verify(orderService, times(1)).createOrder(validOrderRequest);
+        verify(orderService, times(1)).createOrder(validOrderRequest, "admin", null);
+    }
+
+    @Test
+    void createOrder_ShouldPassIdempotencyKeyAndPrincipalToService() {
+        when(orderService.createOrder(validOrderRequest, "admin", "checkout-42")).thenReturn(order);
+
+        ResponseEntity<Order> response = orderController.createOrder(validOrderRequest, "checkout-42", ADMIN);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(order, response.getBody());
+        verify(orderService, times(1)).createOrder(validOrderRequest, "admin", "checkout-42");
     }
 
     @Test
@@ -119,13 +134,54 @@ class OrderControllerTest {
 
     @Test
     void updateOrder_ShouldReturnUpdatedOrder() {
-        when(orderService.updateOrder(orderId, updateRequest)).thenReturn(order);
+        when(orderService.updateOrder(orderId, updateRequest, null)).thenReturn(order);
 
-        ResponseEntity<Order> response = orderController.updateOrder(orderId, updateRequest);
+        ResponseEntity<Order> response = orderController.updateOrder(orderId, updateRequest, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(order, response.getBody());
-        verify(orderService, times(1)).updateOrder(orderId, updateRequest);
+        verify(orderService, times(1)).updateOrder(orderId, updateRequest, null);
+    }
+
+    @Test
+    void updateOrder_WithIfMatch_ShouldPassExpectedVersion() {
+        order.setVersion(4);
+        when(orderService.updateOrder(orderId, updateRequest, 3L)).thenReturn(order);
+
+        ResponseEntity<Order> response = orderController.updateOrder(orderId, updateRequest, "\"3\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(orderService, times(1)).updateOrder(orderId, updateRequest, 3L);
+    }
+
+    @Test
+    void updateOrder_WithMalformedIfMatch_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderController.updateOrder(orderId, updateRequest, "\"abc\""));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void updateOrder_WithWildcardIfMatch_ShouldUpdateAnyVersion() {
+        order.setVersion(4);
+        when(orderService.updateOrder(orderId, updateRequest, null)).thenReturn(order);
+
+        ResponseEntity<Order> response = orderController.updateOrder(orderId, updateRequest, "*");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(orderService, times(1)).updateOrder(orderId, updateRequest, null);
+    }
+
+    @Test
+    void updateOrder_WithWildcardIfMatchOnMissingOrder_ShouldFailPrecondition() {
+        when(orderService.updateOrder(orderId, updateRequest, null)).thenThrow(new OrderNotFoundException(orderId));
+
+        assertThrows(OrderVersionMismatchException.class,
+                () -> orderController.updateOrder(orderId, updateRequest, "*"));
+        // Without If-Match a missing order is still a 404
+        assertThrows(OrderNotFoundException.class,
+                () -> orderController.updateOrder(orderId, updateRequest, null));
     }
 
     @Test
@@ -140,12 +196,12 @@ class OrderControllerTest {
 
     @Test
     void getOrderHistory_ShouldReturnListOfOrders() {
-        when(orderService.getOrderHistory("ABC XYZ")).thenReturn(Collections.singletonList(order));
+        when(orderService.getOrderHistory("ABC XYZ", null, null)).thenReturn(Collections.singletonList(order));
 
-        ResponseEntity<List<Order>> response = orderController.getOrderHistory("ABC XYZ");
+        ResponseEntity<List<Order>> response = orderController.getOrderHistory("ABC XYZ", null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(Objects.requireNonNull(response.getBody()).isEmpty());
-        verify(orderService, times(1)).getOrderHistory("ABC XYZ");
+        verify(orderService, times(1)).getOrderHistory("ABC XYZ", null, null);
     }
 }
@@ -2,6 +2,8 @@ package com.mcb.ecommerce.order_management.controller.service;
 
 import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
 import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.exception.IllegalStatusTransitionException;
+import com.mcb.ecommerce.order_management.exception.OrderVersionMismatchException;
 import com.mcb.ecommerce.order_management.model.Order;
 import com.mcb.ecommerce.order_management.model.OrderStatus;
 import com.mcb.ecommerce.order_management.repository.OrderRepository;
@@ -14,10 +16,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -69,46 +74,46 @@ class OrderServiceTest {
     @Test
     @org.junit.jupiter.api.Order(2)
     void getOrders_ShouldReturnAllOrders() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        when(orderRepository.streamAll()).thenReturn(Stream.of(order));
 
         List<Order> orders = orderService.getOrders(null, null, null);
 
         assertFalse(orders.isEmpty());
         assertEquals(1, orders.size());
         assertEquals(order, orders.get(0));
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).streamAll();
     }
 
     @Test
     @org.junit.jupiter.api.Order(3)
     void getOrders_ShouldReturnFilteredOrdersByCustomerName() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        when(orderRepository.streamByCustomerName("ABC XYZ")).thenReturn(Stream.of(order));
 
         List<Order> orders = orderService.getOrders("ABC XYZ", null, null);
 
         assertFalse(orders.isEmpty());
         assertEquals(1, orders.size());
         assertEquals(order, orders.get(0));
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).streamByCustomerName("ABC XYZ");
     }
 
     @Test
     @org.junit.jupiter.api.Order(4)
     void getOrders_ShouldReturnFilteredOrdersByStatus() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        when(orderRepository.streamByStatus(OrderStatus.PENDING)).thenReturn(Stream.of(order));
 
         List<Order> orders = orderService.getOrders(null, "PENDING", null);
 
         assertFalse(orders.isEmpty());
         assertEquals(1, orders.size());
         assertEquals(order, orders.get(0));
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).streamByStatus(OrderStatus.PENDING);
     }
 
     @Test
     @org.junit.jupiter.api.Order(5)
     void getOrders_ShouldSortOrdersByDateCreatedAsc() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        when(orderRepository.streamAll()).thenReturn(Stream.of(order));
 
         // You would need to set the dateCreated property appropriately for this test
         // Assuming order has a dateCreated field and has been set in the setup
@@ -117,13 +122,13 @@ class OrderServiceTest {
 
         // Check if the orders are sorted correctly (this may require more orders to properly test sorting)
         assertFalse(orders.isEmpty());
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).streamAll();
     }
 
     @Test
     @org.junit.jupiter.api.Order(6)
     void getOrders_ShouldSortOrdersByDateCreatedDesc() {
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        when(orderRepository.streamAll()).thenReturn(Stream.of(order));
 
         // You would need to set the dateCreated property appropriately for this test
 
@@ -131,7 +136,7 @@ class OrderServiceTest {
 
         // Check if the orders are sorted correctly
         assertFalse(orders.isEmpty());
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).streamAll();
     }
 
     @Test
@@ -152,14 +157,15 @@ class OrderServiceTest {
         Order updatedOrder = new Order();
         updatedOrder.setStatus(OrderStatus.COMPLETED);
         when(orderRepository.findById(orderId)).thenReturn(java.util.Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.compareAndSet(eq(order), any(Order.class))).thenReturn(true);
 
         OrderUpdateRequest orderUpdateRequest = new OrderUpdateRequest();
         orderUpdateRequest.setStatus(OrderStatus.COMPLETED);
         Order result = orderService.updateOrder(orderId, orderUpdateRequest);
 
         assertEquals(updatedOrder.getStatus(), result.getStatus());
-        verify(orderRepository, times(1)).save(any(Order.class));
+        assertEquals(order.getVersion() + 1, result.getVersion());
+        verify(orderRepository, times(1)).compareAndSet(eq(order), any(Order.class));
     }
 
     @Test
@@ -171,8 +177,9 @@ class OrderServiceTest {
         order.setOrderId(UUID.randomUUID()); // Set a random UUID for the order
         order.setStatus(OrderStatus.PENDING); // Set a valid status
 
-        // Mock the repository to return the order for the specified customer name
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        // Mock the repository to return the customer's history
+        when(orderRepository.findCustomerHistory(customerName, null, Integer.MAX_VALUE))
+                .thenReturn(new ArrayList<>(Collections.singletonList(order)));
 
         // Call the service method
         List<Order> orderHistory = orderService.getOrderHistory(customerName);
@@ -181,7 +188,8 @@ class OrderServiceTest {
         assertFalse(orderHistory.isEmpty(), "Order history should not be empty");
         assertEquals(1, orderHistory.size(), "Order history should contain one order");
         assertEquals(customerName, orderHistory.get(0).getCustomerName(), "The customer's name should match");
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).findCustomerHistory(customerName, null, Integer.MAX_VALUE);
+        verify(orderRepository, never()).findAll();
     }
 
     @Test
@@ -201,6 +209,112 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).deleteById(orderId);
     }
 
+    @Test
+    @org.junit.jupiter.api.Order(11)
+    void createOrder_WithSameIdempotencyKey_ShouldCreateOnce() {
+        Order first = orderService.createOrder(validOrderRequest, "admin", "checkout-42");
+        Order retried = orderService.createOrder(validOrderRequest, "admin", "checkout-42");
+
+        assertSame(first, retried);
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(12)
+    void createOrder_WithReusedIdempotencyKeyAndDifferentRequest_ShouldThrow() {
+        orderService.createOrder(validOrderRequest, "admin", "checkout-42");
+
+        OrderRequest otherRequest = new OrderRequest();
+        otherRequest.setCustomerName("ABC XYZ");
+        otherRequest.setProductName("Phone");
+        otherRequest.setQuantity(2);
+        otherRequest.setPrice(700.00);
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(otherRequest, "admin", "checkout-42"));
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
 
+    @Test
+    @org.junit.jupiter.api.Order(13)
+    void updateOrder_WhenCompareAndSetLosesRace_ShouldRetryWithFreshOrder() {
+        Order concurrentlyUpdated = order.withStatus(OrderStatus.PENDING);
+        when(orderRepository.findById(orderId))
+                .thenReturn(Optional.of(order))
+                .thenReturn(Optional.of(concurrentlyUpdated));
+        when(orderRepository.compareAndSet(eq(order), any(Order.class))).thenReturn(false);
+        when(orderRepository.compareAndSet(eq(concurrentlyUpdated), any(Order.class))).thenReturn(true);
 
+        OrderUpdateRequest orderUpdateRequest = new OrderUpdateRequest();
+        orderUpdateRequest.setStatus(OrderStatus.COMPLETED);
+        Order result = orderService.updateOrder(orderId, orderUpdateRequest);
+
+        assertEquals(OrderStatus.COMPLETED, result.getStatus());
+        assertEquals(concurrentlyUpdated.getVersion() + 1, result.getVersion());
+        verify(orderRepository, times(2)).findById(orderId);
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(14)
+    void updateOrder_WithStaleVersion_ShouldThrowVersionMismatch() {
+        order.setVersion(2);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        OrderUpdateRequest orderUpdateRequest = new OrderUpdateRequest();
+        orderUpdateRequest.setStatus(OrderStatus.COMPLETED);
+
+        assertThrows(OrderVersionMismatchException.class,
+                () -> orderService.updateOrder(orderId, orderUpdateRequest, 1L));
+        verify(orderRepository, never()).compareAndSet(any(Order.class), any(Order.class));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(15)
+    void updateOrder_FromTerminalStatus_ShouldThrowIllegalTransition() {
+        order.setStatus(OrderStatus.CANCELLED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        OrderUpdateRequest orderUpdateRequest = new OrderUpdateRequest();
+        orderUpdateRequest.setStatus(OrderStatus.PENDING);
+
+        assertThrows(IllegalStatusTransitionException.class,
+                () -> orderService.updateOrder(orderId, orderUpdateRequest));
+        verify(orderRepository, never()).compareAndSet(any(Order.class), any(Order.class));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(16)
+    void getOrders_RepeatedFilter_ShouldBeServedFromCache() {
+        when(orderRepository.streamByStatus(OrderStatus.PENDING)).thenAnswer(invocation -> Stream.of(order));
+
+        List<Order> first = orderService.getOrders(null, "pending", "DESC");
+        List<Order> second = orderService.getOrders(null, "PENDING", "desc");
+
+        assertSame(first, second);
+        assertThrows(UnsupportedOperationException.class, () -> second.add(order));
+        verify(orderRepository, times(1)).streamByStatus(OrderStatus.PENDING);
+        verify(orderRepository).addChangeListener(any());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(17)
+    void getOrderHistory_WithSinceAndLimit_ShouldPassThemToRepository() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(orderRepository.findCustomerHistory("ABC XYZ", since, 5)).thenReturn(new ArrayList<>(List.of(order)));
+
+        List<Order> history = orderService.getOrderHistory("ABC XYZ", since, 5);
+
+        assertEquals(List.of(order), history);
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrderHistory("ABC XYZ", null, 0));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(18)
+    void createOrder_WithSameIdempotencyKeyFromOtherPrincipal_ShouldCreateAgain() {
+        Order first = orderService.createOrder(validOrderRequest, "admin", "checkout-42");
+        Order other = orderService.createOrder(validOrderRequest, "other-admin", "checkout-42");
+
+        assertNotSame(first, other);
+        assertSame(other, orderService.createOrder(validOrderRequest, "other-admin", "checkout-42"));
+        verify(orderRepository, times(2)).save(any(Order.class));
+    }
 }
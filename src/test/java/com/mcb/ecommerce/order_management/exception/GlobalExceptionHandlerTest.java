@@ -0,0 +1,83 @@
+package com.mcb.ecommerce.order_management.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleOrderNotFound_ShouldReturn404WithOrderId() {
+        UUID orderId = UUID.randomUUID();
+
+        ResponseEntity<byte[]> response = handler.handleOrderNotFound(new OrderNotFoundException(orderId));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"status\":404,\"message\":\"Order not found\",\"orderId\":\"" + orderId + "\"}",
+                new String(response.getBody(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void notFoundBody_ShouldFormatIdLikeUuidToString() {
+        UUID[] ids = {new UUID(0L, 0L), new UUID(-1L, -1L), new UUID(0x0123456789abcdefL, 0xfedcba9876543210L), UUID.randomUUID()};
+
+        for (UUID id : ids) {
+            String body = new String(GlobalExceptionHandler.notFoundBody(id), StandardCharsets.US_ASCII);
+            assertTrue(body.contains("\"orderId\":\"" + id + "\""), body);
+        }
+    }
+
+    @Test
+    void handleIllegalArgumentException_ShouldReturn400WithEscapedDetails() {
+        ResponseEntity<byte[]> response = handler.handleIllegalArgumentException(
+                new IllegalArgumentException("Unknown status: \"DONE\\\n\u00e9\""), null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"status\":400,\"message\":\"Invalid argument provided\","
+                        + "\"details\":\"Unknown status: \\\"DONE\\\\\\u000a\u00e9\\\"\"}",
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handleValidationExceptions_ShouldReturn400WithOneMessagePerField() throws NoSuchMethodException {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "orderRequest");
+        bindingResult.addError(new FieldError("orderRequest", "quantity", "must be at least 1"));
+        bindingResult.addError(new FieldError("orderRequest", "price", "must not be null"));
+        bindingResult.addError(new FieldError("orderRequest", "quantity", "must not be null"));
+        MethodParameter parameter = new MethodParameter(Object.class.getMethod("equals", Object.class), 0);
+
+        ResponseEntity<byte[]> response =
+                handler.handleValidationExceptions(new MethodArgumentNotValidException(parameter, bindingResult));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"status\":400,\"message\":\"Validation failed\","
+                        + "\"errors\":{\"price\":\"must not be null\",\"quantity\":\"must not be null\"}}",
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void orderNotFoundException_ShouldBeStacklessWithLazyMessage() {
+        UUID orderId = UUID.randomUUID();
+
+        OrderNotFoundException ex = new OrderNotFoundException(orderId);
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(orderId, ex.getOrderId());
+        assertEquals("Order not found with id: " + orderId, ex.getMessage());
+    }
+}
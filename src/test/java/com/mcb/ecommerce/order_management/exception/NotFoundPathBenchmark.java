@@ -0,0 +1,171 @@
+package com.mcb.ecommerce.order_management.exception;
+
+import com.mcb.ecommerce.order_management.controller.OrderController;
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Compares allocation and latency of answering a lookup of an unknown order id, before and after
+ * making the exception stackless and the body preserialized. The old path threw a RuntimeException
+ * with a stack trace and a concatenated message and answered with that message; each iteration
+ * throws from 100 frames deep to approximate the filter and dispatcher stack a request runs under.
+ *
+ * A second run measures the error responses scrapers trigger through the real dispatcher: MockMvc
+ * in front of {@link OrderController} and {@link GlobalExceptionHandler}, with a successful lookup
+ * of an existing order as the reference.
+ *
+ * Run with {@code mvn test -Pbenchmark}; benchmark.iterations sets the measured iterations.
+ */
+@Tag("benchmark")
+class NotFoundPathBenchmark {
+
+    private static final int STACK_DEPTH = 100;
+    private static final String ORDERS_PATH = "/api/v1/orders";
+
+    private final int iterations = Integer.getInteger("benchmark.iterations", 50_000);
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private static volatile Object sink;
+
+    @Test
+    void notFound_ShouldAllocateLessThanStackTracePath() {
+        UUID[] ids = randomIds();
+        Result before = measure("stack trace + string body", i -> {
+            UUID id = ids[i & 1023];
+            try {
+                throwAt(STACK_DEPTH, () -> new RuntimeException("Order not found with id: " + id));
+                return null;
+            } catch (RuntimeException ex) {
+                ResponseEntity<String> response = new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+                return response.getBody().getBytes(StandardCharsets.UTF_8);
+            }
+        });
+        Result after = measure("stackless + preserialized", i -> {
+            UUID id = ids[i & 1023];
+            try {
+                throwAt(STACK_DEPTH, () -> new OrderNotFoundException(id));
+                return null;
+            } catch (OrderNotFoundException ex) {
+                return handler.handleOrderNotFound(ex).getBody();
+            }
+        });
+
+        System.out.println(before);
+        System.out.println(after);
+        assertTrue(after.bytesPerOp < before.bytesPerOp, "expected fewer bytes per not-found response");
+    }
+
+    @Test
+    void errorResponses_ThroughRealHandler() throws Exception {
+        OrderRepository orderRepository = new OrderRepository();
+        OrderController controller = new OrderController(orderRepository);
+        // The controller holds the service singleton, which may already exist with another repository
+        Order existing = OrderService.getInstance(orderRepository).createOrder(orderRequest());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(handler)
+                .build();
+
+        UUID[] unknownIds = randomIds();
+        String[] unknownPaths = new String[unknownIds.length];
+        for (int i = 0; i < unknownIds.length; i++) {
+            unknownPaths[i] = ORDERS_PATH + "/" + unknownIds[i];
+        }
+
+        Result[] results = {
+                measureRequests("existing id (200)", mockMvc, new String[]{ORDERS_PATH + "/" + existing.getOrderId()}, 200),
+                measureRequests("unknown id (404)", mockMvc, unknownPaths, 404),
+                measureRequests("malformed id (400)", mockMvc, new String[]{ORDERS_PATH + "/not-an-order-id"}, 400),
+                measureRequests("unknown status (400)", mockMvc, new String[]{ORDERS_PATH + "?status=SHIPPED"}, 400)
+        };
+        for (Result result : results) {
+            System.out.println(result);
+        }
+
+        MockHttpServletResponse notFound = perform(mockMvc, unknownPaths[0]);
+        assertArrayEquals(GlobalExceptionHandler.notFoundBody(unknownIds[0]), notFound.getContentAsByteArray());
+    }
+
+    private Result measureRequests(String name, MockMvc mockMvc, String[] paths, int expectedStatus) throws Exception {
+        return measure(name, i -> {
+            MockHttpServletResponse response = perform(mockMvc, paths[i % paths.length]);
+            if (response.getStatus() != expectedStatus) {
+                fail(name + ": expected status " + expectedStatus + " but got " + response.getStatus());
+            }
+            return response;
+        });
+    }
+
+    private <E extends Exception> Result measure(String name, Operation<E> operation) throws E {
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.apply(i);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.apply(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(name, allocated / iterations, elapsed / iterations);
+    }
+
+    private static MockHttpServletResponse perform(MockMvc mockMvc, String path) throws Exception {
+        return mockMvc.perform(get(path)).andReturn().getResponse();
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private static UUID[] randomIds() {
+        UUID[] ids = new UUID[1024];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        return ids;
+    }
+
+    private static OrderRequest orderRequest() {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Benchmark Customer");
+        request.setProductName("Laptop");
+        request.setQuantity(1);
+        request.setPrice(1500.00);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface Operation<E extends Exception> {
+        Object apply(int iteration) throws E;
+    }
+
+    private record Result(String name, long bytesPerOp, long nanosPerOp) {
+        @Override
+        public String toString() {
+            return String.format("%-28s %8d bytes/op %8d ns/op", name, bytesPerOp, nanosPerOp);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mcb.ecommerce.order_management.expiry;
+
+import com.mcb.ecommerce.order_management.expiry.HierarchicalTimingWheel.Timeout;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void advance_ShouldFireEachTimerOnFirstTickAtOrAfterDeadline() {
+        HierarchicalTimingWheel<long[]> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Random random = new Random(42);
+        List<long[]> timers = new ArrayList<>();
+        // Spread over the first three levels: up to 512^2 ticks and beyond
+        for (int i = 0; i < 100_000; i++) {
+            long deadline = random.nextInt(1_000_000);
+            long[] timer = {deadline, -1};
+            timers.add(timer);
+            wheel.schedule(timer, deadline);
+        }
+
+        for (long now = 1; now <= 1_000_000; now++) {
+            long firedAt = now;
+            wheel.advance(now, timer -> timer[1] = firedAt);
+        }
+
+        assertEquals(0, wheel.size());
+        for (long[] timer : timers) {
+            assertEquals(Math.max(timer[0], 1), timer[1], "deadline " + timer[0]);
+        }
+    }
+
+    @Test
+    void advance_ShouldFireFarDeadlinesAfterCascadingThroughLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(100, 1_000);
+        long[] deadlines = {1_000 + 51_200, 1_000 + 26_214_400, 1_000 + 86_400_000L * 30, 1_000 + 86_400_000L * 365};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 1_000; fired.size() < deadlines.length; now += 100_000) {
+            long firedBy = now;
+            wheel.advance(now, deadline -> fired.add(new long[]{deadline, firedBy}));
+            assertTrue(now < deadlines[3] + 200_000, "timer did not fire");
+        }
+
+        for (long[] timer : fired) {
+            assertTrue(timer[1] >= timer[0], "fired early");
+            assertTrue(timer[1] < timer[0] + 100_000, "fired late");
+        }
+    }
+
+    @Test
+    void cancel_ShouldPreventFiring() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 0);
+        Timeout<String> cancelled = wheel.schedule("cancelled", 50);
+        Timeout<String> kept = wheel.schedule("kept", 50);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(1, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(100, fired::add);
+        assertEquals(List.of("kept"), fired);
+        assertFalse(kept.isPending());
+        assertFalse(wheel.cancel(kept));
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlineOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1_000);
+        wheel.schedule("late", 500);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(1_010, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+}
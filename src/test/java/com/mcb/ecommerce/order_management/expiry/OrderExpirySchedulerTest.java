@@ -0,0 +1,137 @@
+package com.mcb.ecommerce.order_management.expiry;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.dto.request.OrderUpdateRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderExpirySchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private OrderRepository orderRepository;
+    private OrderService orderService;
+    private OrderExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        orderRepository = new OrderRepository();
+        // OrderService is a process wide singleton, build a private instance for this test
+        Constructor<OrderService> constructor = OrderService.class.getDeclaredConstructor(OrderRepository.class);
+        constructor.setAccessible(true);
+        orderService = constructor.newInstance(orderRepository);
+
+        scheduler = new OrderExpiryScheduler(orderService, TIMEOUT, Duration.ofSeconds(1), 2, clock::get);
+        orderService.setExpiryScheduler(scheduler);
+    }
+
+    @Test
+    void tick_ShouldCancelOrdersPendingPastTimeout() {
+        Order order = orderService.createOrder(orderRequest());
+        scheduler.tick();
+        assertEquals(1, scheduler.getPendingTimers());
+
+        clock.addAndGet(TIMEOUT.toMillis() - 1_000);
+        assertEquals(0, scheduler.tick());
+        assertEquals(OrderStatus.PENDING, orderService.getOrderById(order.getOrderId()).getStatus());
+
+        clock.addAndGet(1_000);
+        assertEquals(1, scheduler.tick());
+        Order expired = orderService.getOrderById(order.getOrderId());
+        assertEquals(OrderStatus.CANCELLED, expired.getStatus());
+        assertEquals(1, expired.getVersion());
+        assertEquals(0, scheduler.getPendingTimers());
+    }
+
+    @Test
+    void tick_ShouldSkipCompletedAndDeletedOrders() {
+        Order completed = orderService.createOrder(orderRequest());
+        Order deleted = orderService.createOrder(orderRequest());
+        OrderUpdateRequest update = new OrderUpdateRequest();
+        update.setStatus(OrderStatus.COMPLETED);
+        orderService.updateOrder(completed.getOrderId(), update);
+        orderService.deleteOrder(deleted.getOrderId());
+
+        clock.addAndGet(TIMEOUT.toMillis() + 1_000);
+        assertEquals(0, scheduler.tick());
+        assertEquals(0, scheduler.getPendingTimers());
+        assertEquals(OrderStatus.COMPLETED, orderService.getOrderById(completed.getOrderId()).getStatus());
+    }
+
+    @Test
+    void tick_ShouldCancelInBatches() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest());
+        }
+
+        clock.addAndGet(TIMEOUT.toMillis() + 1_000);
+        assertEquals(2, scheduler.tick());
+        assertEquals(2, scheduler.tick());
+        assertEquals(1, scheduler.tick());
+        assertEquals(0, scheduler.tick());
+        assertEquals(5, scheduler.getCancelledOrders());
+        assertEquals(5, orderRepository.countByStatus(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void cancelExpiredOrders_ShouldOnlyCancelPendingOrders() {
+        orderService.setExpiryScheduler(null);
+        Order pending = orderService.createOrder(orderRequest());
+        Order completed = orderService.createOrder(orderRequest());
+        OrderUpdateRequest update = new OrderUpdateRequest();
+        update.setStatus(OrderStatus.COMPLETED);
+        orderService.updateOrder(completed.getOrderId(), update);
+
+        int cancelled = orderService.cancelExpiredOrders(List.of(pending.getOrderId(), completed.getOrderId()));
+
+        assertEquals(1, cancelled);
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(pending.getOrderId()).getStatus());
+        assertEquals(OrderStatus.COMPLETED, orderService.getOrderById(completed.getOrderId()).getStatus());
+    }
+
+    @Test
+    void register_WithCreationDate_ShouldCountTimeoutFromCreation() {
+        Order overdue = orderRepository.save(new Order("Alice", "Laptop", 1, 1500.00));
+        Order recent = orderRepository.save(new Order("Bob", "Mouse", 1, 25.00));
+        scheduler.register(overdue.getOrderId(), createdMillisAgo(TIMEOUT.toMillis() + 60_000));
+        scheduler.register(recent.getOrderId(), createdMillisAgo(TIMEOUT.toMillis() - 60_000));
+
+        // Timers already past their deadline fire on the next tick of the wheel
+        clock.addAndGet(1_000);
+        assertEquals(1, scheduler.tick());
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(overdue.getOrderId()).getStatus());
+        assertEquals(OrderStatus.PENDING, orderService.getOrderById(recent.getOrderId()).getStatus());
+
+        clock.addAndGet(60_000);
+        assertEquals(1, scheduler.tick());
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(recent.getOrderId()).getStatus());
+    }
+
+    private LocalDateTime createdMillisAgo(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.get() - millis), ZoneId.systemDefault());
+    }
+
+    private static OrderRequest orderRequest() {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Alice");
+        request.setProductName("Laptop");
+        request.setQuantity(1);
+        request.setPrice(1500.00);
+        return request;
+    }
+}
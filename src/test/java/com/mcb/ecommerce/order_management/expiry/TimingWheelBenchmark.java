@@ -0,0 +1,59 @@
+package com.mcb.ecommerce.order_management.expiry;
+
+import com.mcb.ecommerce.order_management.expiry.HierarchicalTimingWheel.Timeout;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schedules millions of order timeouts spread over a day, cancels half of them as orders complete,
+ * then advances through the day and checks every remaining timer fired within one tick of its deadline.
+ *
+ * Run with {@code mvn test -Pbenchmark}; benchmark.timers sets the number of timers.
+ */
+@Tag("benchmark")
+class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 100;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final int timers = Integer.getInteger("benchmark.timers", 5_000_000);
+
+    @Test
+    void millionsOfTimers_ShouldFireWithinOneTick() {
+        HierarchicalTimingWheel<long[]> wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 0);
+        @SuppressWarnings("unchecked")
+        Timeout<long[]>[] handles = new Timeout[timers];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < timers; i++) {
+            long deadline = ThreadLocalRandom.current().nextLong(DAY_MILLIS);
+            handles[i] = wheel.schedule(new long[]{deadline}, deadline);
+        }
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < timers; i += 2) {
+            wheel.cancel(handles[i]);
+        }
+        long cancelled = System.nanoTime();
+
+        long[] fired = new long[2];
+        for (long now = 0; now <= DAY_MILLIS + TICK_MILLIS; now += TICK_MILLIS) {
+            long firedAt = now;
+            wheel.advance(now, timer -> {
+                fired[0]++;
+                fired[1] = Math.max(fired[1], firedAt - timer[0]);
+            });
+        }
+        long advanced = System.nanoTime();
+
+        System.out.printf("timers=%d schedule=%d ns/op cancel=%d ns/op advance=%d ms for one day of ticks, max lateness=%d ms%n",
+                timers, (scheduled - start) / timers, (cancelled - scheduled) / (timers / 2),
+                (advanced - cancelled) / 1_000_000, fired[1]);
+        assertEquals(timers / 2, fired[0]);
+        assertTrue(fired[1] < TICK_MILLIS, "timer fired more than one tick late");
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,241 @@
+package com.mcb.ecommerce.order_management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcb.ecommerce.order_management.loadtest.Workload.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Constant-rate HTTP load generator. Each client thread issues one request at a time on a fixed
+ * schedule, its share of the target rate, picking the operation from the workload mix. Latency is
+ * measured from when a request was due rather than when it was sent, so a stalled server delays
+ * the whole backlog of requests behind it instead of hiding them (no coordinated omission).
+ * Each client records into its own HDR histogram; the histograms are merged once the run is over
+ * so recording never contends between clients.
+ * Requests go through the real servlet, security and JSON stack of a running application.
+ */
+class LoadGenerator {
+
+    private static final String AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final int CUSTOMERS = 200;
+    private static final String[] PRODUCTS = {"Laptop", "Phone", "Monitor", "Keyboard", "Mouse", "Headset"};
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI ordersUri;
+    private final int clients;
+    private final long intervalNanos;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private final List<String> seededIds = new ArrayList<>();
+    // Orders created during the run that are still PENDING, consumed by updates
+    private final Queue<String> pendingIds = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param targetRate requests per second over all clients.
+     */
+    LoadGenerator(URI baseUri, int clients, double targetRate, Duration warmup, Duration duration) {
+        this.ordersUri = baseUri.resolve("/api/v1/orders");
+        this.clients = clients;
+        this.intervalNanos = (long) (clients * 1e9 / targetRate);
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Deletes every order in the store, then creates the orders that reads and updates operate on,
+     * so each workload starts from the same state whatever ran before it.
+     */
+    void seed(int orders) throws IOException, InterruptedException {
+        deleteAll();
+        for (int i = 0; i < orders; i++) {
+            String id = create();
+            if (id == null) {
+                throw new IllegalStateException("Seeding orders failed");
+            }
+            seededIds.add(id);
+        }
+    }
+
+    /**
+     * Runs the workload for the warmup period, then measures it for the configured duration.
+     * Requests that fell behind schedule are still sent, so an overloaded server makes the run last
+     * longer and the throughput is taken over the time it actually took.
+     */
+    LoadTestResult run(Workload workload) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long warmupEnd = start + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<ClientStats>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                // Stagger the clients so their requests are spread evenly over each interval
+                long firstDue = start + intervalNanos * i / clients;
+                futures.add(executor.submit(() -> runClient(workload, firstDue, warmupEnd, end)));
+            }
+
+            Histogram latencies = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            long errors = 0;
+            for (Future<ClientStats> future : futures) {
+                ClientStats stats = future.get();
+                latencies.add(stats.latencies);
+                errors += stats.errors;
+            }
+            return new LoadTestResult(workload, latencies, errors, (System.nanoTime() - warmupEnd) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClientStats runClient(Workload workload, long firstDue, long warmupEnd, long end) {
+        ClientStats stats = new ClientStats();
+        for (long due = firstDue; due < end; due += intervalNanos) {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean ok;
+            try {
+                ok = execute(workload.next());
+            } catch (IOException ex) {
+                ok = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (due >= warmupEnd) {
+                long latencyMicros = (System.nanoTime() - due) / 1_000L;
+                stats.latencies.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                if (!ok) {
+                    stats.errors++;
+                }
+            }
+        }
+        return stats;
+    }
+
+    private void deleteAll() throws IOException, InterruptedException {
+        HttpResponse<String> orders = send(get(""));
+        if (orders.statusCode() != 200) {
+            throw new IllegalStateException("Listing orders failed with status " + orders.statusCode());
+        }
+        for (JsonNode order : objectMapper.readTree(orders.body())) {
+            int status = send(request("/" + order.get("orderId").asText()).DELETE().build()).statusCode();
+            if (status != 204 && status != 404) {
+                throw new IllegalStateException("Deleting orders failed with status " + status);
+            }
+        }
+        seededIds.clear();
+        pendingIds.clear();
+    }
+
+    private boolean execute(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET_BY_ID -> send(get("/" + randomSeededId())).statusCode() == 200;
+            case LIST -> send(get("?status=PENDING&sort=desc")).statusCode() == 200;
+            case SEARCH_OR_HISTORY -> random.nextBoolean()
+                    ? send(get("/search?customerNamePrefix=" + encode("Customer " + random.nextInt(10))
+                            + "&minPrice=100&sort=price:desc&limit=20")).statusCode() == 200
+                    : send(get("/customers/" + encode(randomCustomer()) + "/orders")).statusCode() == 200;
+            case CREATE -> {
+                String id = create();
+                if (id != null) {
+                    pendingIds.offer(id);
+                }
+                yield id != null;
+            }
+            case UPDATE -> update();
+        };
+    }
+
+    private String create() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = String.format("{\"customerName\":\"%s\",\"productName\":\"%s\",\"quantity\":%d,\"price\":%d}",
+                randomCustomer(), PRODUCTS[random.nextInt(PRODUCTS.length)], 1 + random.nextInt(5), 10 + random.nextInt(2_000));
+        HttpResponse<String> response = send(request("")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        if (response.statusCode() != 201) {
+            return null;
+        }
+        JsonNode created = objectMapper.readTree(response.body());
+        return created.get("orderId").asText();
+    }
+
+    // Completes an order created during the run, or re-applies PENDING to a seeded one when none is left
+    private boolean update() throws IOException, InterruptedException {
+        String id = pendingIds.poll();
+        String status = "COMPLETED";
+        if (id == null) {
+            id = randomSeededId();
+            status = "PENDING";
+        }
+        HttpResponse<String> response = send(request("/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                .build());
+        return response.statusCode() == 200;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(ordersUri + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", AUTHORIZATION);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String randomSeededId() {
+        return seededIds.get(ThreadLocalRandom.current().nextInt(seededIds.size()));
+    }
+
+    private static String randomCustomer() {
+        return "Customer " + ThreadLocalRandom.current().nextInt(CUSTOMERS);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static final class ClientStats {
+        private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private long errors;
+    }
+}
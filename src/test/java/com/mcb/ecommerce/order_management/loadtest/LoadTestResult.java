@@ -0,0 +1,64 @@
+package com.mcb.ecommerce.order_management.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Properties;
+
+/**
+ * Outcome of one measured load test run: throughput, error count and the latency histogram in microseconds.
+ */
+class LoadTestResult {
+
+    private final Workload workload;
+    private final Histogram latencyMicros;
+    private final long errors;
+    private final double elapsedSeconds;
+
+    LoadTestResult(Workload workload, Histogram latencyMicros, long errors, double elapsedSeconds) {
+        this.workload = workload;
+        this.latencyMicros = latencyMicros;
+        this.errors = errors;
+        this.elapsedSeconds = elapsedSeconds;
+    }
+
+    Workload getWorkload() {
+        return workload;
+    }
+
+    long getRequests() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    double getThroughput() {
+        return getRequests() / elapsedSeconds;
+    }
+
+    long getP99Micros() {
+        return latencyMicros.getValueAtPercentile(99.0);
+    }
+
+    Properties toProperties() {
+        String prefix = workload.name() + ".";
+        Properties properties = new Properties();
+        properties.setProperty(prefix + "throughput", String.format("%.1f", getThroughput()));
+        properties.setProperty(prefix + "p50Micros", Long.toString(latencyMicros.getValueAtPercentile(50.0)));
+        properties.setProperty(prefix + "p99Micros", Long.toString(getP99Micros()));
+        properties.setProperty(prefix + "p999Micros", Long.toString(latencyMicros.getValueAtPercentile(99.9)));
+        properties.setProperty(prefix + "maxMicros", Long.toString(latencyMicros.getMaxValue()));
+        properties.setProperty(prefix + "requests", Long.toString(getRequests()));
+        properties.setProperty(prefix + "errors", Long.toString(errors));
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d requests, %.1f req/s, p50=%dus p99=%dus p99.9=%dus max=%dus, %d errors",
+                workload, getRequests(), getThroughput(),
+                latencyMicros.getValueAtPercentile(50.0), getP99Micros(),
+                latencyMicros.getValueAtPercentile(99.9), latencyMicros.getMaxValue(), errors);
+    }
+}
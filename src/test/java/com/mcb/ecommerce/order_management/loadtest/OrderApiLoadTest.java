@@ -0,0 +1,84 @@
+package com.mcb.ecommerce.order_management.loadtest;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the application on a random port and drives each workload through the full HTTP stack
+ * at a constant request rate, starting every workload from a freshly seeded store.
+ * Results are written to target/loadtest and compared with src/test/resources/loadtest/baseline.properties;
+ * a workload without a baseline fails until one is recorded.
+ *
+ * Run with {@code mvn test -Ploadtest}. Tuning system properties:
+ * loadtest.clients, loadtest.targetRate, loadtest.warmupSeconds, loadtest.durationSeconds, loadtest.seedOrders,
+ * loadtest.maxRegressionPercent, and loadtest.updateBaseline=true to record a new baseline.
+ */
+@Tag("loadtest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Measure the application, not the admission limits in front of it
+        "order.admission.permits-per-second=1000000",
+        "order.admission.burst=1000000",
+        "order.admission.max-concurrent-list-queries=1024",
+        "order.admission.shed-p99-threshold-ms=60000"
+})
+class OrderApiLoadTest {
+
+    private static final Path BASELINE = Path.of("src/test/resources/loadtest/baseline.properties");
+    private static final Path RESULTS_DIR = Path.of("target/loadtest");
+
+    @LocalServerPort
+    private int port;
+
+    private final int seedOrders = Integer.getInteger("loadtest.seedOrders", 2_000);
+
+    private LoadGenerator loadGenerator;
+    private PerformanceBaseline baseline;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        loadGenerator = new LoadGenerator(URI.create("http://localhost:" + port),
+                Integer.getInteger("loadtest.clients", 32),
+                Double.parseDouble(System.getProperty("loadtest.targetRate", "2000")),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 5)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 20)));
+        baseline = new PerformanceBaseline(BASELINE);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Workload.class)
+    void workload_ShouldNotRegressAgainstBaseline(Workload workload) throws Exception {
+        loadGenerator.seed(seedOrders);
+        LoadTestResult result = loadGenerator.run(workload);
+        System.out.println(result);
+        PerformanceBaseline.write(RESULTS_DIR.resolve(workload.name().toLowerCase() + ".properties"), result.toProperties());
+
+        assertTrue(result.getRequests() > 0, "no requests completed");
+        assertTrue(result.getErrors() <= result.getRequests() / 100, "more than 1% of requests failed: " + result);
+
+        if (Boolean.getBoolean("loadtest.updateBaseline")) {
+            baseline.update(result);
+            return;
+        }
+        // An unrecorded baseline would let every regression through, so it fails the run instead
+        if (!baseline.hasBaselineFor(workload)) {
+            fail("No baseline for " + workload + " in " + BASELINE
+                    + ", record one on this machine with -Dloadtest.updateBaseline=true");
+        }
+        double maxRegressionPercent = Double.parseDouble(System.getProperty("loadtest.maxRegressionPercent", "20"));
+        List<String> regressions = baseline.regressions(result, maxRegressionPercent);
+        assertTrue(regressions.isEmpty(), workload + " regressed: " + regressions);
+    }
+}
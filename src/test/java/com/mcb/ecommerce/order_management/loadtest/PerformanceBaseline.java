@@ -0,0 +1,71 @@
+package com.mcb.ecommerce.order_management.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Stored reference results that load test runs are compared against.
+ * A run regresses when its p99 latency is higher, or its throughput lower, than the baseline by
+ * more than the allowed percentage.
+ */
+class PerformanceBaseline {
+
+    private final Path file;
+    private final Properties values = new Properties();
+
+    PerformanceBaseline(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                values.load(reader);
+            }
+        }
+    }
+
+    boolean hasBaselineFor(Workload workload) {
+        return values.containsKey(workload.name() + ".throughput") && values.containsKey(workload.name() + ".p99Micros");
+    }
+
+    /**
+     * @return a description of every metric that regressed beyond the allowed percentage, empty if none did.
+     */
+    List<String> regressions(LoadTestResult result, double maxRegressionPercent) {
+        String prefix = result.getWorkload().name() + ".";
+        double allowed = maxRegressionPercent / 100.0;
+        List<String> regressions = new ArrayList<>();
+
+        double baselineP99 = Double.parseDouble(values.getProperty(prefix + "p99Micros"));
+        if (result.getP99Micros() > baselineP99 * (1 + allowed)) {
+            regressions.add(String.format("p99 %dus is more than %.0f%% above baseline %.0fus",
+                    result.getP99Micros(), maxRegressionPercent, baselineP99));
+        }
+
+        double baselineThroughput = Double.parseDouble(values.getProperty(prefix + "throughput"));
+        if (result.getThroughput() < baselineThroughput * (1 - allowed)) {
+            regressions.add(String.format("throughput %.1f req/s is more than %.0f%% below baseline %.1f req/s",
+                    result.getThroughput(), maxRegressionPercent, baselineThroughput));
+        }
+        return regressions;
+    }
+
+    /**
+     * Replaces the baseline of the result's workload with the result and writes the file.
+     */
+    void update(LoadTestResult result) throws IOException {
+        values.putAll(result.toProperties());
+        write(file, values);
+    }
+
+    static void write(Path path, Properties properties) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "Order API load test results");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mcb.ecommerce.order_management.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request mixes driven by the load generator. Weights are percentages of all requests.
+ */
+enum Workload {
+    READ_HEAVY(80, 5, 5, 5, 5),
+    WRITE_HEAVY(15, 5, 0, 50, 30),
+    LIST_HEAVY(15, 40, 35, 5, 5);
+
+    /**
+     * The operations a simulated client can issue.
+     */
+    enum Operation {
+        GET_BY_ID, LIST, SEARCH_OR_HISTORY, CREATE, UPDATE
+    }
+
+    private final int[] cumulativeWeights;
+
+    Workload(int getById, int list, int searchOrHistory, int create, int update) {
+        int[] weights = {getById, list, searchOrHistory, create, update};
+        cumulativeWeights = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+        if (total != 100) {
+            throw new IllegalStateException("Workload weights must add up to 100");
+        }
+    }
+
+    Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        Operation[] operations = Operation.values();
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
@@ -0,0 +1,111 @@
+package com.mcb.ecommerce.order_management.profiling;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingRecorderTest {
+
+    private Path directory;
+    private ProfilingRecorder profilingRecorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("profiling-test");
+        profilingRecorder = new ProfilingRecorder(directory, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingRecorder.stop();
+    }
+
+    @Test
+    void start_ShouldRefuseSecondRecording() {
+        assertTrue(profilingRecorder.start("default", Duration.ofMinutes(1)));
+        assertFalse(profilingRecorder.start("default", Duration.ofMinutes(1)));
+        assertEquals(true, profilingRecorder.status().get("running"));
+    }
+
+    @Test
+    void start_ShouldRejectUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> profilingRecorder.start("no-such-settings", null));
+    }
+
+    @Test
+    void dumpAndStop_ShouldReturnNullWithoutRecording() {
+        assertNull(profilingRecorder.dump());
+        assertNull(profilingRecorder.stop());
+    }
+
+    @Test
+    void stop_ShouldWriteOrderEvents() throws Exception {
+        OrderService orderService = newOrderService(new OrderRepository());
+        profilingRecorder.start("default", null);
+
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Alice");
+        request.setProductName("Laptop");
+        request.setQuantity(1);
+        request.setPrice(1500.00);
+        Order order = orderService.createOrder(request);
+        orderService.getOrderById(order.getOrderId());
+        orderService.getOrders(null, null, "desc");
+
+        Path file = profilingRecorder.stop();
+        assertTrue(file.startsWith(directory));
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent listing = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.mcb.order.OrderOperation"))
+                .filter(event -> "getOrders".equals(event.getString("operation")))
+                .findFirst().orElseThrow();
+        assertEquals("FULL_SCAN", listing.getString("accessPath"));
+        assertEquals(1L, listing.getLong("rowsScanned"));
+        assertEquals(1, listing.getInt("resultSize"));
+
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.mcb.order.OrderStore")
+                && "findById".equals(event.getString("operation"))
+                && "repository".equals(event.getString("store"))));
+    }
+
+    @Test
+    void dump_ShouldKeepOnlyNewestFiles() throws Exception {
+        profilingRecorder.start("default", null);
+
+        Path last = null;
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(5); // file names have millisecond resolution
+            last = profilingRecorder.dump();
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        assertEquals(2, files.size());
+        assertTrue(files.contains(last));
+    }
+
+    // OrderService is a process wide singleton, build a private instance for this test
+    private static OrderService newOrderService(OrderRepository orderRepository) throws Exception {
+        Constructor<OrderService> constructor = OrderService.class.getDeclaredConstructor(OrderRepository.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(orderRepository);
+    }
+}
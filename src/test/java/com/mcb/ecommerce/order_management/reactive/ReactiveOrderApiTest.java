@@ -0,0 +1,226 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.replication.ReplicationFollower;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.lang.reflect.Constructor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveOrderApiTest {
+
+    private OrderService orderService;
+    private ObjectMapper objectMapper;
+    private InMemoryUserDetailsManager users;
+    private ReactiveOrderHandler handler;
+    private ReactiveOrderServer server;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // OrderService is a process wide singleton, build a private instance for this test
+        Constructor<OrderService> constructor = OrderService.class.getDeclaredConstructor(OrderRepository.class);
+        constructor.setAccessible(true);
+        orderService = constructor.newInstance(new OrderRepository());
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        users = new InMemoryUserDetailsManager(
+                User.withUsername("admin").password("admin").roles("ADMIN").build(),
+                User.withUsername("user").password("user").roles("USER").build());
+        handler = new ReactiveOrderHandler(new ReactiveOrderService(orderService),
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        server = new ReactiveOrderServer(ReactiveOrderServer.httpHandler(handler.routes(), objectMapper,
+                new BasicAuthWebFilter(users, NoOpPasswordEncoder.getInstance())), 0);
+        server.start();
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void requests_WithoutValidCredentials_ShouldBeRejected() {
+        client.get().uri("/api/v1/orders").exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().exists("WWW-Authenticate");
+        client.get().uri("/api/v1/orders").headers(h -> h.setBasicAuth("user", "wrong")).exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void createOrder_ShouldRequireAdmin() {
+        client.post().uri("/api/v1/orders").headers(h -> h.setBasicAuth("user", "user"))
+                .bodyValue(orderRequest("Alice")).exchange()
+                .expectStatus().isForbidden();
+
+        client.post().uri("/api/v1/orders").headers(h -> h.setBasicAuth("admin", "admin"))
+                .bodyValue(orderRequest("Alice")).exchange()
+                .expectStatus().isCreated()
+                .expectBody(Order.class).value(order -> assertEquals("Alice", order.getCustomerName()));
+
+        assertEquals(1, orderService.getOrders(null, null, null).size());
+    }
+
+    @Test
+    void createOrder_WithInvalidRequest_ShouldReturnValidationErrors() {
+        OrderRequest invalid = orderRequest("Alice");
+        invalid.setQuantity(0);
+
+        client.post().uri("/api/v1/orders").headers(h -> h.setBasicAuth("admin", "admin"))
+                .bodyValue(invalid).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.errors.quantity").exists();
+    }
+
+    @Test
+    void getOrders_ShouldStreamNdjson() {
+        for (int i = 0; i < 100; i++) {
+            orderService.createOrder(orderRequest("Customer " + i));
+        }
+
+        List<Order> orders = client.get().uri("/api/v1/orders?status=PENDING")
+                .headers(h -> h.setBasicAuth("user", "user"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Order.class).getResponseBody().collectList().block();
+
+        assertNotNull(orders);
+        assertEquals(100, orders.size());
+    }
+
+    @Test
+    void getOrderHistory_ShouldApplySinceAndLimit() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest("Alice"));
+        }
+        orderService.createOrder(orderRequest("Bob"));
+
+        List<Order> history = client.get()
+                .uri(uri -> uri.path("/api/v1/orders/customers/{customerName}/orders")
+                        .queryParam("limit", 3)
+                        .queryParam("since", LocalDateTime.now().minusHours(1))
+                        .build("alice"))
+                .headers(h -> h.setBasicAuth("user", "user"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Order.class).getResponseBody().collectList().block();
+
+        assertNotNull(history);
+        assertEquals(3, history.size());
+        assertTrue(history.stream().allMatch(order -> order.getCustomerName().equals("Alice")));
+    }
+
+    @Test
+    void getOrderById_ShouldMapErrorsLikeTheServletApi() {
+        UUID missing = UUID.randomUUID();
+        client.get().uri("/api/v1/orders/{id}", missing).headers(h -> h.setBasicAuth("user", "user")).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.orderId").isEqualTo(missing.toString());
+
+        client.get().uri("/api/v1/orders/not-a-uuid").headers(h -> h.setBasicAuth("user", "user")).exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/api/v1/orders?status=SHIPPED").headers(h -> h.setBasicAuth("user", "user")).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateOrder_WithStaleVersion_ShouldReturnPreconditionFailed() {
+        Order order = orderService.createOrder(orderRequest("Alice"));
+
+        client.put().uri("/api/v1/orders/{id}", order.getOrderId())
+                .headers(h -> {
+                    h.setBasicAuth("admin", "admin");
+                    h.setIfMatch("\"7\"");
+                })
+                .bodyValue(Map.of("status", "COMPLETED")).exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        client.put().uri("/api/v1/orders/{id}", order.getOrderId())
+                .headers(h -> {
+                    h.setBasicAuth("admin", "admin");
+                    h.setIfMatch("\"0\"");
+                })
+                .bodyValue(Map.of("status", "COMPLETED")).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"");
+    }
+
+    @Test
+    void updateOrder_WithWildcardIfMatch_ShouldRequireAnExistingOrder() {
+        Order order = orderService.createOrder(orderRequest("Alice"));
+
+        client.put().uri("/api/v1/orders/{id}", UUID.randomUUID())
+                .headers(h -> {
+                    h.setBasicAuth("admin", "admin");
+                    h.set("If-Match", "*");
+                })
+                .bodyValue(Map.of("status", "COMPLETED")).exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        client.put().uri("/api/v1/orders/{id}", order.getOrderId())
+                .headers(h -> {
+                    h.setBasicAuth("admin", "admin");
+                    h.set("If-Match", "*");
+                })
+                .bodyValue(Map.of("status", "COMPLETED")).exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void replica_ShouldRejectWritesAndStaleReads() {
+        // Never started, so it has never caught up with a leader
+        ReplicationFollower follower = new ReplicationFollower(new OrderRepository(), "localhost", 1);
+        ReactiveOrderServer replica = new ReactiveOrderServer(ReactiveOrderServer.httpHandler(handler.routes(),
+                objectMapper, new ReplicaConsistencyWebFilter(follower, 1_000),
+                new BasicAuthWebFilter(users, NoOpPasswordEncoder.getInstance())), 0);
+        replica.start();
+        try {
+            WebTestClient replicaClient = WebTestClient.bindToServer()
+                    .baseUrl("http://localhost:" + replica.getPort()).build();
+            replicaClient.post().uri("/api/v1/orders").headers(h -> h.setBasicAuth("admin", "admin"))
+                    .bodyValue(orderRequest("Alice")).exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals("Retry-After", "1");
+            replicaClient.get().uri("/api/v1/orders").headers(h -> h.setBasicAuth("user", "user")).exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertEquals(0, orderService.getOrders(null, null, null).size());
+        } finally {
+            replica.close();
+        }
+    }
+
+    private static OrderRequest orderRequest(String customerName) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName(customerName);
+        request.setProductName("Laptop");
+        request.setQuantity(1);
+        request.setPrice(1500.00);
+        return request;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderRequest;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds thousands of slow-reading connections open against the servlet list endpoint and then
+ * against the streamed list endpoint of the reactive API, and compares threads, heap and direct
+ * memory of the server and how many readers got their first byte.
+ *
+ * The servlet API needs a request thread for as long as a response is being written, so readers
+ * beyond the thread pool wait for a thread; the reactive API writes every connection from the
+ * event loops as its reader drains it. The client runs in the same JVM on one extra thread.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=SlowReaderBenchmark}; with the
+ * default of 10000 readers raise the open file limit first ({@code ulimit -n 65536}). Tuning system
+ * properties: benchmark.slowReaders, benchmark.seedOrders, benchmark.bytesPerTick, benchmark.durationSeconds.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "order.reactive.enabled=true",
+        "order.reactive.port=0",
+        // Measure the servers, not the admission limits in front of the servlet API
+        "order.admission.permits-per-second=1000000",
+        "order.admission.burst=1000000",
+        "order.admission.max-concurrent-list-queries=100000",
+        "order.admission.shed-p99-threshold-ms=60000"
+})
+class SlowReaderBenchmark {
+
+    private static final String ORDERS_PATH = "/api/v1/orders";
+    private static final String USER_CREDENTIALS = "Basic dXNlcjp1c2Vy"; // user:user
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    private final int slowReaders = Integer.getInteger("benchmark.slowReaders", 10_000);
+    private final int seedOrders = Integer.getInteger("benchmark.seedOrders", 2_000);
+    private final int bytesPerTick = Integer.getInteger("benchmark.bytesPerTick", 4096);
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("benchmark.durationSeconds", 30));
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveOrderServer reactiveOrderServer;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeAll
+    void seed() {
+        OrderService orderService = OrderService.getInstance(orderRepository);
+        for (int i = 0; i < seedOrders; i++) {
+            OrderRequest request = new OrderRequest();
+            request.setCustomerName("Customer " + (i % 100));
+            request.setProductName("Product " + i);
+            request.setQuantity(1 + i % 5);
+            request.setPrice(10.0 + i % 90);
+            orderService.createOrder(request);
+        }
+    }
+
+    @Test
+    void slowReaders_ServletVersusReactive() throws Exception {
+        Phase servlet = run("servlet", servletPort, MediaType.APPLICATION_JSON_VALUE);
+        Phase reactive = run("reactive", reactiveOrderServer.getPort(), MediaType.APPLICATION_NDJSON_VALUE);
+
+        System.out.printf("%-9s %8s %10s %11s %9s %9s %12s %12s%n", "api", "threads", "firstByte",
+                "ttfbP99Ms", "completed", "failed", "heapDeltaMB", "directMB");
+        for (Phase phase : new Phase[]{servlet, reactive}) {
+            System.out.printf("%-9s %8d %10d %11d %9d %9d %12d %12d%n", phase.name, phase.peakThreads,
+                    phase.result.firstByte, phase.result.firstByteMillis(99), phase.result.completed,
+                    phase.result.failed, phase.peakHeapDeltaBytes >> 20, phase.peakDirectBytes >> 20);
+        }
+
+        assertTrue(reactive.result.firstByte >= reactive.result.readers * 99L / 100,
+                "reactive API served fewer than 99% of the readers: " + reactive.result);
+    }
+
+    private Phase run(String name, int port, String accept) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        Phase phase = new Phase(name);
+        SlowReaders readers = new SlowReaders(new InetSocketAddress("localhost", port), ORDERS_PATH, accept,
+                USER_CREDENTIALS, slowReaders, bytesPerTick, TICK);
+        phase.result = readers.run(duration, () -> {
+            phase.peakHeapDeltaBytes = Math.max(phase.peakHeapDeltaBytes,
+                    memory.getHeapMemoryUsage().getUsed() - baselineHeap);
+            phase.peakDirectBytes = Math.max(phase.peakDirectBytes, directMemoryUsed());
+        });
+        phase.peakThreads = threads.getPeakThreadCount();
+        System.out.println(name + ": " + phase.result);
+        return phase;
+    }
+
+    // NIO direct buffers plus Netty's pooled arenas, which are allocated outside the JDK's accounting
+    private static long directMemoryUsed() {
+        long used = PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory();
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+
+    private static final class Phase {
+
+        private final String name;
+        private SlowReaders.Result result;
+        private int peakThreads;
+        private long peakHeapDeltaBytes;
+        private long peakDirectBytes;
+
+        private Phase(String name) {
+            this.name = name;
+        }
+    }
+}
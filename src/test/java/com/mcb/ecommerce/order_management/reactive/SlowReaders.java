@@ -0,0 +1,216 @@
+package com.mcb.ecommerce.order_management.reactive;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens many HTTP connections from a single selector thread and reads each response at a fixed,
+ * slow rate, like clients on poor mobile links. The readers keep their receive windows small, so
+ * the server cannot park a whole response in the kernel and has to hold it until it is read.
+ */
+class SlowReaders {
+
+    // Connections opened per tick, so the server's accept backlog is not flooded at once
+    private static final int CONNECTS_PER_TICK = 500;
+
+    private final InetSocketAddress address;
+    private final byte[] request;
+    private final int readers;
+    private final int bytesPerTick;
+    private final long tickMillis;
+
+    /**
+     * @param path the request path, including the query string.
+     * @param accept the media type to ask for.
+     * @param authorization the value of the Authorization header.
+     * @param bytesPerTick how many bytes each reader consumes per tick.
+     */
+    SlowReaders(InetSocketAddress address, String path, String accept, String authorization,
+                int readers, int bytesPerTick, Duration tick) {
+        this.address = address;
+        this.request = ("GET " + path + " HTTP/1.1\r\n"
+                + "Host: " + address.getHostString() + ":" + address.getPort() + "\r\n"
+                + "Accept: " + accept + "\r\n"
+                + "Authorization: " + authorization + "\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.readers = readers;
+        this.bytesPerTick = bytesPerTick;
+        this.tickMillis = tick.toMillis();
+    }
+
+    /**
+     * Runs the readers for the given time, then closes every connection.
+     * @param onTick called once per tick on the selector thread, e.g. to sample the server.
+     * @return what the readers saw.
+     */
+    Result run(Duration duration, Runnable onTick) throws IOException {
+        List<Reader> all = new ArrayList<>(readers);
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(bytesPerTick);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (Selector selector = Selector.open()) {
+            long nextTick = System.nanoTime();
+            while (System.nanoTime() < deadline) {
+                long waitMillis = Math.max(1, (nextTick - System.nanoTime()) / 1_000_000);
+                selector.select(waitMillis);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    handle(key);
+                }
+                selector.selectedKeys().clear();
+
+                if (System.nanoTime() - nextTick >= 0) {
+                    nextTick += tickMillis * 1_000_000;
+                    for (int i = 0; i < CONNECTS_PER_TICK && all.size() < readers; i++) {
+                        all.add(connect(selector));
+                    }
+                    for (Reader reader : all) {
+                        reader.read(readBuffer);
+                    }
+                    onTick.run();
+                }
+            }
+        } finally {
+            for (Reader reader : all) {
+                reader.close();
+            }
+        }
+        return new Result(all);
+    }
+
+    private Reader connect(Selector selector) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        // Set before connecting, the window scale is negotiated in the handshake
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, bytesPerTick);
+        Reader reader = new Reader(channel, ByteBuffer.wrap(request));
+        if (channel.connect(address)) {
+            reader.connected = true;
+            channel.register(selector, SelectionKey.OP_WRITE, reader);
+        } else {
+            channel.register(selector, SelectionKey.OP_CONNECT, reader);
+        }
+        return reader;
+    }
+
+    private static void handle(SelectionKey key) {
+        Reader reader = (Reader) key.attachment();
+        try {
+            if (key.isConnectable() && reader.channel.finishConnect()) {
+                reader.connected = true;
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+            if (key.isValid() && key.isWritable()) {
+                reader.channel.write(reader.request);
+                if (!reader.request.hasRemaining()) {
+                    // Reading is paced by the ticks, not driven by readiness
+                    key.interestOps(0);
+                }
+            }
+        } catch (IOException ex) {
+            reader.fail();
+        }
+    }
+
+    private static final class Reader {
+
+        private final SocketChannel channel;
+        private final ByteBuffer request;
+        private final long startNanos = System.nanoTime();
+        private long firstByteNanos = -1;
+        private long bytes;
+        private boolean connected;
+        private boolean completed;
+        private boolean failed;
+
+        private Reader(SocketChannel channel, ByteBuffer request) {
+            this.channel = channel;
+            this.request = request;
+        }
+
+        private void read(ByteBuffer buffer) {
+            if (!connected || request.hasRemaining() || completed || failed) {
+                return;
+            }
+            buffer.clear();
+            try {
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    completed = true;
+                    channel.close();
+                } else if (read > 0) {
+                    if (firstByteNanos < 0) {
+                        firstByteNanos = System.nanoTime() - startNanos;
+                    }
+                    bytes += read;
+                }
+            } catch (IOException ex) {
+                fail();
+            }
+        }
+
+        private void fail() {
+            failed = true;
+            close();
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Counts and time-to-first-byte percentiles over all readers.
+     */
+    static final class Result {
+
+        final int readers;
+        final int connected;
+        final int firstByte;
+        final int completed;
+        final int failed;
+        final long bytes;
+        private final long[] firstByteNanos;
+
+        private Result(List<Reader> all) {
+            readers = all.size();
+            connected = (int) all.stream().filter(reader -> reader.connected).count();
+            completed = (int) all.stream().filter(reader -> reader.completed).count();
+            failed = (int) all.stream().filter(reader -> reader.failed).count();
+            bytes = all.stream().mapToLong(reader -> reader.bytes).sum();
+            firstByteNanos = all.stream().mapToLong(reader -> reader.firstByteNanos).filter(nanos -> nanos >= 0)
+                    .sorted().toArray();
+            firstByte = firstByteNanos.length;
+        }
+
+        /**
+         * @return the time to first byte at the percentile in milliseconds, over readers that got one.
+         */
+        long firstByteMillis(double percentile) {
+            if (firstByteNanos.length == 0) {
+                return -1;
+            }
+            int index = (int) Math.ceil(percentile / 100 * firstByteNanos.length) - 1;
+            return firstByteNanos[Math.max(0, Math.min(index, firstByteNanos.length - 1))] / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return "readers=" + readers + " connected=" + connected + " firstByte=" + firstByte
+                    + " completed=" + completed + " failed=" + failed + " bytes=" + bytes
+                    + " ttfbP50Ms=" + firstByteMillis(50) + " ttfbP99Ms=" + firstByteMillis(99);
+        }
+    }
+}
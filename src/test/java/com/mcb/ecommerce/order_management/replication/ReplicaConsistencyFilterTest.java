@@ -0,0 +1,46 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaConsistencyFilterTest {
+
+    // Never started, so it never synced and is always beyond the staleness bound
+    private final ReplicaConsistencyFilter filter =
+            new ReplicaConsistencyFilter(new ReplicationFollower(new OrderRepository(), "localhost", 0), 1_000);
+
+    @Test
+    void doFilter_ShouldRejectWritesToEveryApiEndpoint() throws Exception {
+        assertEquals(503, perform("POST", "/api/v1/orders").getStatus());
+        assertEquals(503, perform("DELETE", "/api/v1/orders/1").getStatus());
+        assertEquals(503, perform("POST", "/api/v1/admin/snapshots").getStatus());
+        assertEquals(503, perform("POST", "/api/v1/admin/profiling/start").getStatus());
+        assertEquals(503, perform("POST", "/api/v1/admin/profiling/stop").getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldApplyStalenessBoundToOrderReadsOnly() throws Exception {
+        MockHttpServletResponse staleRead = perform("GET", "/api/v1/orders");
+        assertEquals(503, staleRead.getStatus());
+        assertNotNull(staleRead.getHeader("Retry-After"));
+
+        assertEquals(200, perform("GET", "/api/v1/replication/status").getStatus());
+        assertEquals(200, perform("GET", "/api/v1/admin/snapshots").getStatus());
+        assertEquals(200, perform("GET", "/v3/api-docs").getStatus());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
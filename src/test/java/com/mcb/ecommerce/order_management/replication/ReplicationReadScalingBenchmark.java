@@ -0,0 +1,160 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.query.OrderQueryEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures read throughput as followers are added, with a steady write stream on the leader.
+ * Each node gets the same number of reader threads running list queries against its own store,
+ * and the maximum replication lag seen during the run is reported next to the throughput.
+ *
+ * All nodes run in this JVM and share its cores, so throughput only scales with replicas while
+ * cores are left over; for a real measurement start followers as separate processes (see README).
+ *
+ * Run with {@code mvn test -Pbenchmark}. Tuning system properties:
+ * benchmark.maxFollowers, benchmark.readersPerNode, benchmark.seedOrders, benchmark.durationSeconds.
+ */
+@Tag("benchmark")
+class ReplicationReadScalingBenchmark {
+
+    private static final String[] CUSTOMERS = {"Alice", "Bob", "Carol", "Dave", "Eve", "Frank", "Grace", "Heidi"};
+
+    private final int maxFollowers = Integer.getInteger("benchmark.maxFollowers", 3);
+    private final int readersPerNode = Integer.getInteger("benchmark.readersPerNode", 2);
+    private final int seedOrders = Integer.getInteger("benchmark.seedOrders", 20_000);
+    private final long durationMillis = TimeUnit.SECONDS.toMillis(Integer.getInteger("benchmark.durationSeconds", 5));
+
+    @Test
+    void readThroughput_ByFollowerCount() throws Exception {
+        OrderRepository leaderRepository = new OrderRepository();
+        ReplicationLog replicationLog = new ReplicationLog(1 << 16);
+        leaderRepository.addChangeListener(replicationLog);
+        for (int i = 0; i < seedOrders; i++) {
+            leaderRepository.save(newOrder());
+        }
+
+        List<ReplicationFollower> followers = new ArrayList<>();
+        List<OrderRepository> nodes = new ArrayList<>(List.of(leaderRepository));
+        try (ReplicationLeader leader = new ReplicationLeader(leaderRepository, replicationLog, 0, 10)) {
+            leader.start();
+            long leaderOnly = 0;
+            for (int followerCount = 0; followerCount <= maxFollowers; followerCount++) {
+                if (followerCount > 0) {
+                    OrderRepository replica = new OrderRepository();
+                    ReplicationFollower follower = new ReplicationFollower(replica, "localhost", leader.getPort());
+                    follower.start();
+                    followers.add(follower);
+                    nodes.add(replica);
+                    awaitCaughtUp(follower, leader);
+                }
+
+                Run run = measure(leaderRepository, nodes, followers);
+                System.out.printf("followers=%d reads/s=%d writes/s=%d maxLagEntries=%d%n",
+                        followerCount, run.readsPerSecond, run.writesPerSecond, run.maxLagEntries);
+                if (followerCount == 0) {
+                    leaderOnly = run.readsPerSecond;
+                }
+                for (ReplicationFollower follower : followers) {
+                    assertTrue(follower.isConnected(), "follower disconnected during the run");
+                }
+            }
+            assertTrue(leaderOnly > 0, "no reads completed");
+        } finally {
+            for (ReplicationFollower follower : followers) {
+                follower.close();
+            }
+        }
+    }
+
+    private Run measure(OrderRepository leaderRepository, List<OrderRepository> nodes,
+                        List<ReplicationFollower> followers) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        AtomicLong maxLag = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(nodes.size() * readersPerNode + 1);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(executor.submit(() -> {
+                while (running.get()) {
+                    leaderRepository.save(newOrder());
+                    writes.incrementAndGet();
+                    for (ReplicationFollower follower : followers) {
+                        maxLag.accumulateAndGet(follower.getLagEntries(), Math::max);
+                    }
+                    sleepMicros(200);
+                }
+            }));
+            for (OrderRepository node : nodes) {
+                OrderQueryEngine queryEngine = new OrderQueryEngine(node);
+                for (int i = 0; i < readersPerNode; i++) {
+                    tasks.add(executor.submit(() -> {
+                        OrderSearchRequest request = new OrderSearchRequest();
+                        request.setSort("dateCreated:desc");
+                        request.setLimit(50);
+                        while (running.get()) {
+                            request.setCustomerName(randomCustomer());
+                            queryEngine.search(request);
+                            reads.incrementAndGet();
+                        }
+                    }));
+                }
+            }
+
+            Thread.sleep(durationMillis);
+            running.set(false);
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(durationMillis));
+        return new Run(reads.get() / seconds, writes.get() / seconds, maxLag.get());
+    }
+
+    private static void awaitCaughtUp(ReplicationFollower follower, ReplicationLeader leader) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (follower.getAppliedSequence() < leader.getLastSequence()) {
+            assertTrue(System.currentTimeMillis() < deadline, "follower did not catch up");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Order newOrder() {
+        return new Order(randomCustomer(), "Product", 1, 10.00);
+    }
+
+    private static String randomCustomer() {
+        return CUSTOMERS[ThreadLocalRandom.current().nextInt(CUSTOMERS.length)];
+    }
+
+    private static void sleepMicros(long micros) {
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Run(long readsPerSecond, long writesPerSecond, long maxLagEntries) {
+    }
+}
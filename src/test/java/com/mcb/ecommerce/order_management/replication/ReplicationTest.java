@@ -0,0 +1,191 @@
+package com.mcb.ecommerce.order_management.replication;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private OrderRepository leaderRepository;
+    private ReplicationLeader leader;
+    private final List<ReplicationFollower> followers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        leaderRepository = new OrderRepository();
+        // A small log so a late follower has to catch up from a snapshot
+        ReplicationLog replicationLog = new ReplicationLog(16);
+        leaderRepository.addChangeListener(replicationLog);
+        leader = new ReplicationLeader(leaderRepository, replicationLog, 0, 10);
+        leader.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ReplicationFollower follower : followers) {
+            follower.close();
+        }
+        leader.close();
+    }
+
+    @Test
+    void follower_ShouldApplyCreatesUpdatesAndDeletes() {
+        OrderRepository replica = new OrderRepository();
+        ReplicationFollower follower = follow(replica);
+        awaitTrue(() -> follower.getStalenessMillis() < TIMEOUT_MILLIS);
+
+        Order kept = leaderRepository.save(new Order("Alice", "Laptop", 1, 1500.00));
+        Order deleted = leaderRepository.save(new Order("Bob", "Mouse", 2, 25.00));
+        leaderRepository.compareAndSet(kept, kept.withStatus(OrderStatus.COMPLETED));
+        leaderRepository.deleteById(deleted.getOrderId());
+
+        awaitTrue(() -> follower.getAppliedSequence() == leader.getLastSequence());
+        assertEquals(1, replica.count());
+        Order replicated = replica.findById(kept.getOrderId()).orElseThrow();
+        assertEquals(OrderStatus.COMPLETED, replicated.getStatus());
+        assertEquals(1, replicated.getVersion());
+        assertTrue(replica.findById(deleted.getOrderId()).isEmpty());
+        assertEquals(1, replica.countByStatus(OrderStatus.COMPLETED));
+        assertEquals(0, follower.getLagEntries());
+    }
+
+    @Test
+    void lateFollower_ShouldCatchUpFromSnapshot() {
+        List<Order> created = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            created.add(leaderRepository.save(new Order("Customer " + i, "Product", 1, 10.00)));
+        }
+        leaderRepository.deleteById(created.get(0).getOrderId());
+
+        OrderRepository replica = new OrderRepository();
+        // Something the leader never had, the snapshot must remove it
+        Order stray = replica.save(new Order("Stray", "Product", 1, 1.00));
+        ReplicationFollower follower = follow(replica);
+
+        awaitTrue(() -> follower.getAppliedSequence() == leader.getLastSequence() && replica.count() == 99);
+        assertTrue(replica.findById(created.get(0).getOrderId()).isEmpty());
+        assertTrue(replica.findById(stray.getOrderId()).isEmpty());
+        assertEquals(created.get(99), replica.findById(created.get(99).getOrderId()).orElseThrow());
+
+        // After the snapshot the follower keeps tailing the log
+        Order later = leaderRepository.save(new Order("Customer 100", "Product", 1, 10.00));
+        awaitTrue(() -> replica.findById(later.getOrderId()).isPresent());
+    }
+
+    @Test
+    void stalenessBound_ShouldHoldWhileLeaderIsIdle() {
+        ReplicationFollower follower = follow(new OrderRepository());
+
+        awaitTrue(() -> follower.getStalenessMillis() < 1_000);
+        assertTrue(follower.isConnected());
+        assertEquals(1, leader.getFollowers().size());
+    }
+
+    @Test
+    void staleUpsertAfterSnapshot_ShouldNotResurrectDeletedOrder() throws Exception {
+        Order kept = new Order("Alice", "Laptop", 1, 1500.00);
+        Order deletedSeen = new Order("Bob", "Mouse", 2, 25.00);
+        Order deletedMissed = new Order("Carol", "Desk", 1, 300.00);
+        Order neverSeen = new Order("Dave", "Chair", 1, 150.00);
+
+        // A scripted leader, so the delete can be logged before the update that raced with it
+        try (ServerSocket scriptedLeader = new ServerSocket(0)) {
+            OrderRepository replica = new OrderRepository();
+            ReplicationFollower follower = new ReplicationFollower(replica, "localhost", scriptedLeader.getLocalPort());
+            followers.add(follower);
+            follower.start();
+
+            try (Socket session = scriptedLeader.accept()) {
+                DataOutputStream out = handshake(session);
+                out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+                out.writeLong(1);
+                out.writeLong(0);
+                for (Order order : List.of(kept, deletedSeen, deletedMissed)) {
+                    out.writeByte(ReplicationProtocol.SNAPSHOT_ORDER);
+                    ReplicationProtocol.writeOrder(out, order);
+                }
+                out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+                out.writeByte(ReplicationProtocol.DELETE);
+                out.writeLong(1);
+                ReplicationProtocol.writeUuid(out, deletedSeen.getOrderId());
+                out.flush();
+                awaitTrue(() -> follower.getAppliedSequence() == 1);
+            }
+
+            // The follower reconnects and is sent a fresh snapshot. Meanwhile deletedMissed and
+            // neverSeen were deleted, and the log holds updates that were logged after the deletes.
+            try (Socket session = scriptedLeader.accept()) {
+                DataOutputStream out = handshake(session);
+                out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+                out.writeLong(1);
+                out.writeLong(4);
+                out.writeByte(ReplicationProtocol.SNAPSHOT_TOMBSTONE);
+                ReplicationProtocol.writeUuid(out, neverSeen.getOrderId());
+                out.writeByte(ReplicationProtocol.SNAPSHOT_ORDER);
+                ReplicationProtocol.writeOrder(out, kept);
+                out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+                long sequence = 4;
+                for (Order order : List.of(deletedSeen, deletedMissed, neverSeen)) {
+                    out.writeByte(ReplicationProtocol.UPSERT);
+                    out.writeLong(++sequence);
+                    ReplicationProtocol.writeOrder(out, order.withStatus(OrderStatus.COMPLETED));
+                }
+                out.flush();
+
+                awaitTrue(() -> follower.getAppliedSequence() == 7);
+                assertEquals(1, replica.count());
+                assertTrue(replica.findById(kept.getOrderId()).isPresent());
+                assertTrue(replica.findById(deletedSeen.getOrderId()).isEmpty());
+                assertTrue(replica.findById(deletedMissed.getOrderId()).isEmpty());
+                assertTrue(replica.findById(neverSeen.getOrderId()).isEmpty());
+            }
+        }
+    }
+
+    private static DataOutputStream handshake(Socket session) throws IOException {
+        DataInputStream in = new DataInputStream(session.getInputStream());
+        assertEquals(ReplicationProtocol.HELLO, in.readByte());
+        in.readLong();
+        in.readLong();
+        return new DataOutputStream(new BufferedOutputStream(session.getOutputStream()));
+    }
+
+    private ReplicationFollower follow(OrderRepository replica) {
+        ReplicationFollower follower = new ReplicationFollower(replica, "localhost", leader.getPort());
+        followers.add(follower);
+        follower.start();
+        return follower;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within " + TIMEOUT_MILLIS + " ms");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mcb.ecommerce.order_management.repository;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private OrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OrderRepository();
+    }
+
+    @Test
+    void findCustomerHistory_ShouldReturnNewestFirstIgnoringCase() {
+        Order oldest = save("Alice", START);
+        Order newest = save("ALICE", START.plusDays(2));
+        Order middle = save("alice", START.plusDays(1));
+        save("Bob", START.plusDays(3));
+
+        assertEquals(List.of(newest, middle, oldest), repository.findCustomerHistory("aLiCe", null, Integer.MAX_VALUE));
+        assertEquals(3, repository.countByCustomerName("Alice"));
+        assertTrue(repository.findCustomerHistory("Carol", null, 10).isEmpty());
+    }
+
+    @Test
+    void findCustomerHistory_ShouldApplySinceAndLimit() {
+        List<Order> saved = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            saved.add(save("Alice", START.plusHours(i)));
+        }
+
+        assertEquals(List.of(saved.get(9), saved.get(8), saved.get(7)),
+                repository.findCustomerHistory("Alice", null, 3));
+        assertEquals(List.of(saved.get(9), saved.get(8), saved.get(7), saved.get(6)),
+                repository.findCustomerHistory("Alice", START.plusHours(6), 100));
+        assertEquals(List.of(saved.get(9), saved.get(8)),
+                repository.findCustomerHistory("Alice", START.plusHours(6), 2));
+    }
+
+    @Test
+    void streamCustomerHistory_ShouldResolveOrdersOnlyAsConsumed() {
+        Order oldest = save("Alice", START);
+        Order newest = save("Alice", START.plusDays(1));
+
+        try (Stream<Order> history = repository.streamCustomerHistory("alice", null)) {
+            // An order deleted before the stream reaches it is skipped
+            repository.deleteById(oldest.getOrderId());
+            assertEquals(List.of(newest), history.toList());
+        }
+        assertEquals(List.of(newest), repository.streamCustomerHistory("Alice", START.plusHours(12)).toList());
+        assertEquals(0, repository.streamCustomerHistory("Carol", null).count());
+    }
+
+    @Test
+    void findCustomerHistory_ShouldReflectUpdatesAndDeletes() {
+        Order first = save("Alice", START);
+        Order second = save("Alice", START.plusMinutes(1));
+
+        Order completed = first.withStatus(OrderStatus.COMPLETED);
+        assertTrue(repository.compareAndSet(first, completed));
+        repository.deleteById(second.getOrderId());
+
+        assertEquals(List.of(completed), repository.findCustomerHistory("Alice", null, 10));
+        assertEquals(1, repository.countByCustomerName("Alice"));
+    }
+
+    @Test
+    void compareAndSet_ShouldOnlyMatchTheStoredInstance() {
+        Order stored = save("Alice", START);
+        Order equalCopy = stored.withStatus(stored.getStatus());
+        equalCopy.setVersion(stored.getVersion());
+        assertEquals(stored, equalCopy);
+
+        assertFalse(repository.compareAndSet(equalCopy, stored.withStatus(OrderStatus.COMPLETED)));
+        assertSame(stored, repository.findById(stored.getOrderId()).orElseThrow());
+        assertTrue(repository.compareAndSet(stored, stored.withStatus(OrderStatus.COMPLETED)));
+    }
+
+    @Test
+    void findCustomerHistory_ShouldStayConsistentUnderConcurrentWritesForSameCustomer() throws Exception {
+        int threads = 8;
+        int ordersPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<UUID>>> kept = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                kept.add(executor.submit(() -> {
+                    start.await();
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        Order order = save("Alice", START.plusSeconds((long) i * threads + thread));
+                        if (i % 3 == 0) {
+                            repository.deleteById(order.getOrderId());
+                        } else if (i % 3 == 1) {
+                            assertTrue(repository.compareAndSet(order, order.withStatus(OrderStatus.CANCELLED)));
+                            ids.add(order.getOrderId());
+                        } else {
+                            ids.add(order.getOrderId());
+                        }
+                        // Readers only ever see a newest-first history of current versions
+                        List<Order> history = repository.findCustomerHistory("Alice", null, 20);
+                        for (int h = 1; h < history.size(); h++) {
+                            assertTrue(history.get(h - 1).getDateCreated().isAfter(history.get(h).getDateCreated()));
+                        }
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            List<UUID> expected = new ArrayList<>();
+            for (Future<List<UUID>> future : kept) {
+                expected.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            List<Order> history = repository.findCustomerHistory("Alice", null, Integer.MAX_VALUE);
+            assertEquals(expected.size(), history.size());
+            assertEquals(expected.stream().sorted().toList(), history.stream().map(Order::getOrderId).sorted().toList());
+            assertEquals(expected.size(), repository.countByCustomerName("Alice"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Order save(String customerName, LocalDateTime dateCreated) {
+        Order order = new Order(customerName, "Laptop", 1, 1500.00);
+        order.setDateCreated(dateCreated);
+        return repository.save(order);
+    }
+}
@@ -0,0 +1,225 @@
+package com.mcb.ecommerce.order_management.service.query;
+
+import com.mcb.ecommerce.order_management.dto.request.OrderSearchRequest;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.query.QueryPlan.AccessPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderQueryEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private OrderRepository orderRepository;
+    private OrderQueryEngine queryEngine;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new OrderRepository();
+        queryEngine = new OrderQueryEngine(orderRepository);
+
+        save("Alice Smith", "Laptop", 1, 1500.00, OrderStatus.PENDING, 0);
+        save("alice smith", "Mouse", 3, 25.00, OrderStatus.COMPLETED, 1);
+        save("Alicia Keys", "Laptop", 2, 1400.00, OrderStatus.PENDING, 2);
+        save("Bob Jones", "Monitor", 1, 300.00, OrderStatus.CANCELLED, 3);
+        save("Bob Jones", "Laptop", 5, 1450.00, OrderStatus.PENDING, 4);
+    }
+
+    @Test
+    void plan_ShouldUseCustomerIndexForExactCustomerName() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setCustomerName("ALICE SMITH");
+        request.setStatus("PENDING");
+
+        QueryPlan plan = queryEngine.plan(request);
+
+        assertEquals(AccessPath.CUSTOMER_INDEX, plan.getAccessPath());
+        assertEquals(2, plan.getEstimatedRows());
+        assertEquals(1, queryEngine.execute(plan).size());
+    }
+
+    @Test
+    void plan_ShouldUseStatusIndexWhenMoreSelective() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setCustomerNamePrefix("a");
+        request.setStatus("CANCELLED");
+
+        QueryPlan plan = queryEngine.plan(request);
+
+        assertEquals(AccessPath.STATUS_INDEX, plan.getAccessPath());
+        assertTrue(queryEngine.execute(plan).isEmpty());
+    }
+
+    @Test
+    void plan_ShouldFallBackToFullScanWithoutIndexedCriteria() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setProductName("laptop");
+
+        QueryPlan plan = queryEngine.plan(request);
+
+        assertEquals(AccessPath.FULL_SCAN, plan.getAccessPath());
+        assertEquals(3, queryEngine.execute(plan).size());
+    }
+
+    @Test
+    void search_ShouldMatchCustomerPrefixCaseInsensitively() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setCustomerNamePrefix("ALI");
+
+        List<Order> orders = queryEngine.search(request);
+
+        assertEquals(3, orders.size());
+        assertTrue(orders.stream().allMatch(order -> order.getCustomerName().toLowerCase().startsWith("ali")));
+    }
+
+    @Test
+    void customerFilters_ShouldAgreeWithTheCustomerIndex() {
+        // The dotted capital I passes equalsIgnoreCase against "i", but folds to "i" plus a combining dot
+        save("\u0130zmir Traders", "Laptop", 1, 900.00, OrderStatus.PENDING, 5);
+        save("izmir traders", "Mouse", 1, 20.00, OrderStatus.PENDING, 6);
+        save("i\u0307zmir traders", "Desk", 1, 300.00, OrderStatus.PENDING, 7);
+
+        for (String name : List.of("izmir traders", "\u0130ZMIR TRADERS", "i\u0307zmir traders")) {
+            OrderSearchRequest byName = new OrderSearchRequest();
+            byName.setCustomerName(name);
+            assertSameOrders(byName);
+
+            OrderSearchRequest byPrefix = new OrderSearchRequest();
+            byPrefix.setCustomerNamePrefix(name.substring(0, 3));
+            assertSameOrders(byPrefix);
+        }
+    }
+
+    @Test
+    void search_ShouldApplyRangesInASinglePass() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setMinPrice(1000.00);
+        request.setMaxPrice(1450.00);
+        request.setMinQuantity(2);
+        request.setCreatedFrom(START.plusHours(2));
+        request.setCreatedTo(START.plusHours(4));
+
+        List<Order> orders = queryEngine.search(request);
+
+        assertEquals(2, orders.size());
+        assertTrue(orders.stream().allMatch(order -> order.getPrice() >= 1000.00 && order.getQuantity() >= 2));
+    }
+
+    @Test
+    void search_ShouldReturnTopKBySortExpression() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setSort("price:desc");
+        request.setLimit(2);
+
+        List<Order> orders = queryEngine.search(request);
+
+        assertEquals(2, orders.size());
+        assertEquals(1500.00, orders.get(0).getPrice());
+        assertEquals(1450.00, orders.get(1).getPrice());
+    }
+
+    @Test
+    void search_ShouldSortOnMultipleFields() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setSort("productName,dateCreated:desc");
+
+        List<Order> orders = queryEngine.search(request);
+
+        assertEquals(List.of("Laptop", "Laptop", "Laptop", "Monitor", "Mouse"),
+                orders.stream().map(Order::getProductName).toList());
+        assertEquals("Bob Jones", orders.get(0).getCustomerName());
+    }
+
+    @Test
+    void search_ShouldRejectInvalidCriteria() {
+        OrderSearchRequest unknownField = new OrderSearchRequest();
+        unknownField.setSort("colour:asc");
+        OrderSearchRequest invertedRange = new OrderSearchRequest();
+        invertedRange.setMinPrice(10.00);
+        invertedRange.setMaxPrice(5.00);
+
+        assertThrows(IllegalArgumentException.class, () -> queryEngine.search(unknownField));
+        assertThrows(IllegalArgumentException.class, () -> queryEngine.search(invertedRange));
+    }
+
+    @Test
+    void search_ShouldMatchSequentialResultsAboveParallelThreshold() {
+        for (int i = 0; i < OrderQueryEngine.PARALLEL_THRESHOLD; i++) {
+            save("Customer " + (i % 100), "Product " + (i % 7), 1 + i % 10, 10.00 + i, OrderStatus.PENDING, 10 + i);
+        }
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setMinQuantity(5);
+        request.setSort("price:desc");
+        request.setLimit(50);
+
+        QueryPlan plan = queryEngine.plan(request);
+        List<Order> orders = queryEngine.execute(plan);
+
+        assertTrue(plan.getEstimatedRows() >= OrderQueryEngine.PARALLEL_THRESHOLD);
+        List<Order> expected = orderRepository.findAll().stream()
+                .filter(order -> order.getQuantity() >= 5)
+                .sorted(Comparator.comparingDouble(Order::getPrice).reversed())
+                .limit(50)
+                .toList();
+        assertEquals(expected, orders);
+    }
+
+    @Test
+    void stream_WithoutSort_ShouldReadCandidatesOnlyAsConsumed() {
+        OrderSearchRequest request = new OrderSearchRequest();
+        request.setStatus("PENDING");
+        QueryPlan plan = queryEngine.plan(request);
+        LongAdder rowsScanned = new LongAdder();
+
+        try (Stream<Order> orders = queryEngine.stream(plan, rowsScanned)) {
+            assertEquals(0, rowsScanned.sum());
+            assertTrue(orders.findFirst().isPresent());
+        }
+
+        assertEquals(1, rowsScanned.sum());
+    }
+
+    @Test
+    void stream_ShouldReturnWhatExecuteReturns() {
+        OrderSearchRequest unsorted = new OrderSearchRequest();
+        unsorted.setProductName("laptop");
+        unsorted.setLimit(2);
+        OrderSearchRequest sorted = new OrderSearchRequest();
+        sorted.setCustomerNamePrefix("ali");
+        sorted.setSort("price:desc");
+
+        for (OrderSearchRequest request : List.of(unsorted, sorted)) {
+            QueryPlan plan = queryEngine.plan(request);
+            assertEquals(queryEngine.execute(plan), queryEngine.stream(plan, null).toList());
+        }
+    }
+
+    // The plan's index must return exactly what its predicate selects from all orders
+    private void assertSameOrders(OrderSearchRequest request) {
+        QueryPlan plan = queryEngine.plan(request);
+        assertNotEquals(AccessPath.FULL_SCAN, plan.getAccessPath());
+        List<Order> scanned = orderRepository.findAll().stream().filter(plan.getPredicate())
+                .sorted(Comparator.comparing(Order::getOrderId)).toList();
+        List<Order> indexed = queryEngine.execute(plan).stream()
+                .sorted(Comparator.comparing(Order::getOrderId)).toList();
+        assertEquals(scanned, indexed);
+    }
+
+    private void save(String customerName, String productName, int quantity, double price,
+                      OrderStatus status, int hoursAfterStart) {
+        Order order = new Order(customerName, productName, quantity, price);
+        order.setStatus(status);
+        order.setDateCreated(START.plusHours(hoursAfterStart));
+        orderRepository.save(order);
+    }
+}
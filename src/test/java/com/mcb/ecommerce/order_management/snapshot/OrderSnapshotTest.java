@@ -0,0 +1,132 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSnapshotTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_789);
+
+    private Path directory;
+    private Path file;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-snapshot");
+        file = directory.resolve("orders.snap");
+
+        orders = new ArrayList<>();
+        String[] customers = {"Alice", "alice", "Albert", "Bob", "Zo\u00eb"};
+        for (int i = 0; i < 50; i++) {
+            Order order = new Order(customers[i % customers.length], "Product " + (i % 7), i + 1, 10.5 * i);
+            order.setStatus(OrderStatus.values()[i % OrderStatus.values().length]);
+            order.setDateCreated(START.plusMinutes(49 - i));
+            order.setVersion(i % 3);
+            orders.add(order);
+        }
+        Order undated = new Order(null, null, 1, 1.0);
+        undated.setDateCreated(null);
+        undated.setStatus(null);
+        orders.add(undated);
+        orders.sort(Comparator.comparing(Order::getOrderId));
+
+        SnapshotWriter.write(orders, file, 42L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void open_ShouldRoundTripEveryOrder() throws IOException {
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            assertEquals(orders.size(), snapshot.size());
+            assertEquals(42L, snapshot.getCreatedAtMillis());
+            assertEquals(orders, snapshot.stream().collect(Collectors.toList()));
+            for (Order order : orders) {
+                assertEquals(order, snapshot.findById(order.getOrderId()));
+            }
+            assertNull(snapshot.findById(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    void indexes_ShouldMatchFilteringAllOrders() throws IOException {
+        try (OrderSnapshot snapshot = OrderSnapshot.open(file)) {
+            assertEquals(ids(orders.stream().filter(o -> "alice".equalsIgnoreCase(o.getCustomerName())).toList()),
+                    ids(snapshot.findByCustomerName("ALICE")));
+            assertEquals(ids(orders.stream().filter(o -> o.getCustomerName() != null
+                            && o.getCustomerName().toLowerCase().startsWith("al")).toList()),
+                    ids(snapshot.findByCustomerNamePrefix("Al")));
+            assertEquals(10, snapshot.findByCustomerName("zo\u00eb").size());
+            assertTrue(snapshot.findByCustomerName("Carol").isEmpty());
+
+            for (OrderStatus status : OrderStatus.values()) {
+                List<Order> expected = orders.stream().filter(o -> o.getStatus() == status).toList();
+                assertEquals(ids(expected), ids(snapshot.findByStatus(status)));
+                assertEquals(expected.size(), snapshot.countByStatus().get(status).intValue());
+            }
+
+            List<Order> range = snapshot.findByCreatedBetween(START.plusMinutes(10), START.plusMinutes(19));
+            assertEquals(10, range.size());
+            for (int i = 1; i < range.size(); i++) {
+                assertTrue(range.get(i - 1).getDateCreated().isBefore(range.get(i).getDateCreated()));
+            }
+            assertEquals(START.plusMinutes(10), range.get(0).getDateCreated());
+            assertEquals(50, snapshot.findByCreatedBetween(null, null).size());
+            assertTrue(snapshot.findByCreatedBetween(START.plusDays(1), null).isEmpty());
+        }
+    }
+
+    @Test
+    void write_ShouldRejectUnsortedOrders() {
+        List<Order> unsorted = new ArrayList<>(orders);
+        unsorted.sort(Comparator.comparing(Order::getOrderId).reversed());
+        assertThrows(IllegalArgumentException.class, () -> SnapshotWriter.write(unsorted, file, 0));
+    }
+
+    @Test
+    void queryTool_ShouldAnswerFromTheFile() throws IOException {
+        Order order = orders.get(7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = SnapshotQueryTool.run(new String[]{file.toString(), "get", order.getOrderId().toString()},
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(0, exitCode);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith(order.getOrderId() + "\t" + order.getCustomerName()));
+        assertEquals(1, SnapshotQueryTool.run(new String[]{file.toString(), "get", UUID.randomUUID().toString()},
+                new PrintStream(out), new PrintStream(err)));
+        assertEquals(2, SnapshotQueryTool.run(new String[]{file.toString(), "status", "SHIPPED"},
+                new PrintStream(out), new PrintStream(err)));
+        assertEquals(2, SnapshotQueryTool.run(new String[]{file.toString(), "created", "2024-13-01T00:00", "-"},
+                new PrintStream(out), new PrintStream(err)));
+    }
+
+    private static List<UUID> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).sorted().toList();
+    }
+}
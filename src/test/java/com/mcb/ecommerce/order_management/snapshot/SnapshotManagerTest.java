@@ -0,0 +1,193 @@
+package com.mcb.ecommerce.order_management.snapshot;
+
+import com.mcb.ecommerce.order_management.expiry.OrderExpiryScheduler;
+import com.mcb.ecommerce.order_management.model.Order;
+import com.mcb.ecommerce.order_management.model.OrderStatus;
+import com.mcb.ecommerce.order_management.repository.OrderRepository;
+import com.mcb.ecommerce.order_management.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotManagerTest {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("order-snapshot");
+        file = directory.resolve("orders.snap");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void snapshot_ShouldBeConsistentWhileWritersRun() throws Exception {
+        OrderRepository repository = new OrderRepository();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            ids.add(repository.save(new Order("Customer " + i, "Product", 1, 1.0)).getOrderId());
+        }
+
+        // Each writer moves every order it owns through versions in lockstep, so any consistent
+        // cut sees at most two adjacent versions among one writer's orders
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            List<UUID> owned = ids.subList(w * 500, (w + 1) * 500);
+            Thread writer = new Thread(() -> {
+                while (running.get()) {
+                    for (UUID id : owned) {
+                        Order current = repository.findById(id).orElseThrow();
+                        Order updated = current.withStatus(OrderStatus.PENDING);
+                        assertTrue(repository.compareAndSet(current, updated));
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<Order> snapshot = repository.snapshot();
+                assertEquals(ids.size(), snapshot.size());
+                for (int w = 0; w < 4; w++) {
+                    long min = Long.MAX_VALUE;
+                    long max = Long.MIN_VALUE;
+                    Map<UUID, Order> byId = new HashMap<>();
+                    snapshot.forEach(order -> byId.put(order.getOrderId(), order));
+                    for (UUID id : ids.subList(w * 500, (w + 1) * 500)) {
+                        long version = byId.get(id).getVersion();
+                        min = Math.min(min, version);
+                        max = Math.max(max, version);
+                    }
+                    assertTrue(max - min <= 1, "versions " + min + ".." + max);
+                }
+                // Sorted by id, every order exactly once
+                for (int i = 1; i < snapshot.size(); i++) {
+                    assertTrue(snapshot.get(i - 1).getOrderId().compareTo(snapshot.get(i).getOrderId()) < 0);
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    void start_ShouldServeLookupsBeforeTheRestoreCompletes() throws Exception {
+        OrderRepository source = new OrderRepository();
+        List<Order> saved = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Order order = new Order(i % 2 == 0 ? "Alice" : "Bob", "Product", 1, i);
+            saved.add(source.save(order));
+        }
+        Order completed = saved.get(3).withStatus(OrderStatus.COMPLETED);
+        assertTrue(source.compareAndSet(saved.get(3), completed));
+        new SnapshotManager(source, file, false).write();
+
+        OrderRepository restored = new OrderRepository();
+        OrderSnapshot snapshot = OrderSnapshot.open(file);
+        restored.beginRestore(snapshot::findById);
+        // Lookups are answered from the file before anything was copied
+        assertEquals(completed, restored.findById(completed.getOrderId()).orElseThrow());
+        assertEquals(1, restored.count());
+
+        // Deleted while restoring: the restore must not bring it back
+        UUID deleted = saved.get(5).getOrderId();
+        restored.deleteById(deleted);
+        for (int i = 0; i < snapshot.size(); i++) {
+            restored.restore(snapshot.get(i));
+        }
+        restored.endRestore();
+
+        assertEquals(999, restored.count());
+        assertTrue(restored.findById(deleted).isEmpty());
+        assertEquals(500, restored.countByCustomerName("alice"));
+        assertEquals(1, restored.countByStatus(OrderStatus.COMPLETED));
+        assertEquals(998, restored.countByStatus(OrderStatus.PENDING));
+    }
+
+    @Test
+    void manager_ShouldRestoreInBackgroundAndWriteOnShutdown() throws Exception {
+        OrderRepository source = new OrderRepository();
+        for (int i = 0; i < 5_000; i++) {
+            source.save(new Order("Customer " + (i % 10), "Product", 1, i));
+        }
+        new SnapshotManager(source, file, false).write();
+
+        OrderRepository restored = new OrderRepository();
+        SnapshotManager manager = new SnapshotManager(restored, file, true);
+        manager.start();
+        assertTrue(manager.awaitRestore(10_000));
+        assertEquals(5_000, restored.count());
+        assertEquals(5_000L, manager.status().get("restoredOrders"));
+
+        restored.save(new Order("New", "Product", 1, 1.0));
+        manager.close();
+        try (OrderSnapshot written = OrderSnapshot.open(file)) {
+            assertEquals(5_001, written.size());
+        }
+    }
+
+    @Test
+    void manager_ShouldRegisterRestoredPendingOrdersForExpiry() throws Exception {
+        OrderRepository source = new OrderRepository();
+        for (int i = 0; i < 10; i++) {
+            Order order = source.save(new Order("Customer " + i, "Product", 1, 1.0));
+            if (i < 3) {
+                assertTrue(source.compareAndSet(order, order.withStatus(OrderStatus.COMPLETED)));
+            }
+        }
+        new SnapshotManager(source, file, false).write();
+
+        OrderRepository restored = new OrderRepository();
+        OrderExpiryScheduler scheduler = new OrderExpiryScheduler(newOrderService(restored), Duration.ofMillis(1),
+                Duration.ofMillis(1), 100);
+        SnapshotManager manager = new SnapshotManager(restored, file, false, scheduler);
+        scheduler.start();
+        try {
+            manager.start();
+            assertTrue(manager.awaitRestore(10_000));
+
+            // Every restored order is older than the timeout, so all pending ones are due at once
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (restored.countByStatus(OrderStatus.CANCELLED) < 7 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            scheduler.close();
+        }
+        assertEquals(7, restored.countByStatus(OrderStatus.CANCELLED));
+        assertEquals(3, restored.countByStatus(OrderStatus.COMPLETED));
+    }
+
+    // OrderService is a process wide singleton, build a private instance for this test
+    private static OrderService newOrderService(OrderRepository orderRepository) throws Exception {
+        Constructor<OrderService> constructor = OrderService.class.getDeclaredConstructor(OrderRepository.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(orderRepository);
+    }
+}